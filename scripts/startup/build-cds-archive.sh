@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Build the startup layout and a class data sharing archive for it, with a training run that starts the application,
+# sends it a few requests and stops it. The archive holds the classes loaded during that run, already parsed and
+# verified, so later starts can map them in instead of loading them from the jars.
+#
+# The archive is only valid for the JDK and the jars it was built with, so it has to be rebuilt after either changes.
+#
+# Usage: scripts/startup/build-cds-archive.sh
+set -euo pipefail
+
+source "$(dirname "$0")/common.sh"
+
+PORT="${PORT:-8080}"
+
+build_layout
+rm -f "$ARCHIVE"
+
+log="$STARTUP_DIR/training.log"
+start_app "$log" -XX:ArchiveClassesAtExit="$ARCHIVE" -Dspring.aot.enabled=true -Dserver.port="$PORT"
+trap stop_app EXIT
+wait_for_start "$log" >/dev/null
+
+# Load the classes of the request path as well, not only those of the start.
+for path in /api/province /api/user /actuator/health; do
+    curl -s -o /dev/null "http://localhost:$PORT$path" || true
+done
+
+stop_app
+if [ ! -f "$ARCHIVE" ]; then
+    echo "No archive was written, see $log" >&2
+    exit 1
+fi
+echo "Wrote $ARCHIVE"
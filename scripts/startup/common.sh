@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Shared by the startup scripts: where the startup build lives and how to start the application from it.
+
+ROOT="$(cd "$(dirname "${BASH_SOURCE[0]}")/../.." && pwd)"
+STARTUP_DIR="$ROOT/build/startup"
+LIB_DIR="$STARTUP_DIR/lib"
+ARCHIVE="$STARTUP_DIR/application.jsa"
+MAIN_CLASS="ca.dgh.rest.demo.RestApplication"
+
+# Lay the application out as plain jars, with the AOT generated code, in build/startup/lib.
+build_layout() {
+    (cd "$ROOT" && ./gradlew -q -Pstartup startupLayout)
+}
+
+# A class data sharing archive is only used when the class path is exactly the one it was built with, so the jars are
+# always listed in the same order.
+class_path() {
+    find "$LIB_DIR" -maxdepth 1 -name '*.jar' | sort | paste -sd ':' -
+}
+
+# Start the application in the background with the given JVM options, logging to the given file. The process id is
+# left in APP_PID.
+start_app() {
+    local log="$1"
+    shift
+    java "$@" -cp "$(class_path)" "$MAIN_CLASS" >"$log" 2>&1 &
+    APP_PID=$!
+}
+
+# Wait for the application logging to the given file to report that it has started, and print how long the process had
+# been running by then, in seconds.
+wait_for_start() {
+    local log="$1"
+    for _ in $(seq 1 240); do
+        if grep -q 'Started RestApplication' "$log"; then
+            sed -n 's/.*Started RestApplication .*process running for \([0-9.]*\).*/\1/p' "$log"
+            return 0
+        fi
+        if ! kill -0 "$APP_PID" 2>/dev/null; then
+            echo "The application stopped before it started, see $log" >&2
+            return 1
+        fi
+        sleep 0.5
+    done
+    echo "The application did not start within two minutes, see $log" >&2
+    return 1
+}
+
+# Stop the application started last and wait for it to exit, which is when a class data sharing archive is written.
+stop_app() {
+    if [ -n "${APP_PID:-}" ]; then
+        kill -TERM "$APP_PID" 2>/dev/null || true
+        wait "$APP_PID" 2>/dev/null || true
+        APP_PID=
+    fi
+}
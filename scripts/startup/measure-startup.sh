@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Measure how long the application takes to start, as reported by Spring Boot, averaged over several starts:
+#   plain     the startup layout without AOT processing or class data sharing,
+#   aot       with the bean definitions generated at build time,
+#   aot+cds   with the class data sharing archive as well, when build-cds-archive.sh has built one.
+#
+# Usage: scripts/startup/measure-startup.sh [number of starts, 5 by default]
+set -euo pipefail
+
+source "$(dirname "$0")/common.sh"
+
+RUNS="${1:-5}"
+trap stop_app EXIT
+
+if [ ! -d "$LIB_DIR" ]; then
+    build_layout
+fi
+
+measure() {
+    local name="$1"
+    shift
+    local log="$STARTUP_DIR/measure-$name.log"
+    local total=0
+    for _ in $(seq 1 "$RUNS"); do
+        start_app "$log" "$@" -Dserver.port=0
+        local seconds
+        seconds="$(wait_for_start "$log")"
+        stop_app
+        total="$(echo "$total + $seconds" | bc -l)"
+    done
+    printf '%-8s %6.2fs\n' "$name" "$(echo "$total / $RUNS" | bc -l)"
+}
+
+measure plain -Dspring.aot.enabled=false
+measure aot -Dspring.aot.enabled=true
+if [ -f "$ARCHIVE" ]; then
+    measure aot+cds -Dspring.aot.enabled=true -XX:SharedArchiveFile="$ARCHIVE"
+else
+    echo "No class data sharing archive, run scripts/startup/build-cds-archive.sh first to measure with one."
+fi
@@ -0,0 +1,89 @@
+package ca.dgh.rest.demo.benchmark;
+
+import ca.dgh.rest.demo.RestApplication;
+import ca.dgh.rest.demo.model.TimeOrderedUuidGenerator;
+import ca.dgh.rest.demo.model.dto.UserDTO;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Helpers shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    /**
+     * The number of users inserted per JDBC batch when building the fixture.
+     */
+    private static final int BATCH_SIZE = 1_000;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Start the application without a web server against a fresh in-memory H2 database, migrated by Flyway, and fill
+     * it with the given number of users spread over every province.
+     *
+     * @param userCount the number of users to insert.
+     * @return the running application context. Callers must close it.
+     */
+    static ConfigurableApplicationContext startApplication(int userCount) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<UUID> provinceIds = jdbcTemplate.queryForList("SELECT ID FROM LK_PROVINCE", UUID.class);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < userCount; i++) {
+            batch.add(new Object[]{TimeOrderedUuidGenerator.generateUuid(), "First " + i, "Last " + i,
+                    provinceIds.get(i % provinceIds.size())});
+            if (batch.size() == BATCH_SIZE || i == userCount - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO APP_USER (ID, FIRST_NAME, LAST_NAME, PROVINCE_ID) VALUES (?, ?, ?, ?)",
+                        batch);
+                batch.clear();
+            }
+        }
+        return context;
+    }
+
+    /**
+     * @param count the number of users to create.
+     * @return users that have not been persisted, with every property set.
+     */
+    static List<UserDTO> createUserDTOs(int count) {
+        List<UserDTO> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UserDTO user = new UserDTO();
+            user.setId(TimeOrderedUuidGenerator.generateUuid());
+            user.setFirstName("First " + i);
+            user.setLastName("Last " + i);
+            user.setProvinceId(UUID.randomUUID());
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * Make sure two implementations being compared produced the same user, so the benchmark compares like with like.
+     *
+     * @param expected the user produced by the reference implementation.
+     * @param actual   the user produced by the implementation being measured.
+     */
+    static void assertSameUser(UserDTO expected, UserDTO actual) {
+        if (!Objects.equals(expected.getId(), actual.getId())
+                || !Objects.equals(expected.getFirstName(), actual.getFirstName())
+                || !Objects.equals(expected.getLastName(), actual.getLastName())
+                || !Objects.equals(expected.getProvinceId(), actual.getProvinceId())) {
+            throw new IllegalStateException("The implementations being compared produced different users");
+        }
+    }
+}
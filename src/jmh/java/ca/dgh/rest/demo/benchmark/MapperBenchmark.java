@@ -0,0 +1,82 @@
+package ca.dgh.rest.demo.benchmark;
+
+import ca.dgh.rest.demo.mapper.DTOMapper;
+import ca.dgh.rest.demo.mapper.ModelMapperConfiguration;
+import ca.dgh.rest.demo.mapper.ModelMapperDTOMapper;
+import ca.dgh.rest.demo.mapper.UserMapper;
+import ca.dgh.rest.demo.model.User;
+import ca.dgh.rest.demo.model.dto.UserDTO;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares converting a list of users to DTOs and back with {@link org.modelmapper.ModelMapper} and with the mapper
+ * generated at compile time. Both must produce equal results, which is checked once during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    /**
+     * The number of users converted per invocation.
+     */
+    @Param({"1", "1000"})
+    int size;
+
+    private DTOMapper<User, UserDTO> modelMapper;
+
+    private DTOMapper<User, UserDTO> generatedMapper;
+
+    private List<User> users;
+
+    private List<UserDTO> dtos;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapperDTOMapper<>(new ModelMapperConfiguration().createModelMapper(), User.class,
+                UserDTO.class);
+        generatedMapper = Mappers.getMapper(UserMapper.class);
+        dtos = BenchmarkFixtures.createUserDTOs(size);
+        users = dtos.stream().map(generatedMapper::toEntity).toList();
+        for (User user : users) {
+            BenchmarkFixtures.assertSameUser(modelMapper.toDTO(user), generatedMapper.toDTO(user));
+        }
+    }
+
+    @Benchmark
+    public List<UserDTO> modelMapperToDTO() {
+        return users.stream().map(modelMapper::toDTO).toList();
+    }
+
+    @Benchmark
+    public List<UserDTO> generatedToDTO() {
+        return users.stream().map(generatedMapper::toDTO).toList();
+    }
+
+    @Benchmark
+    public List<User> modelMapperToEntity() {
+        return dtos.stream().map(modelMapper::toEntity).toList();
+    }
+
+    @Benchmark
+    public List<User> generatedToEntity() {
+        return dtos.stream().map(generatedMapper::toEntity).toList();
+    }
+}
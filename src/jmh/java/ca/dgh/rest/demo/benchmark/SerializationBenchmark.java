@@ -0,0 +1,59 @@
+package ca.dgh.rest.demo.benchmark;
+
+import ca.dgh.rest.demo.model.dto.UserDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing a list of users as JSON and as XML, the two formats the controllers produce.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    /**
+     * The number of users in the list.
+     */
+    @Param({"100", "10000"})
+    int size;
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
+    private final XmlMapper xmlMapper = new XmlMapper();
+
+    private List<UserDTO> users;
+
+    @Setup
+    public void setup() {
+        users = BenchmarkFixtures.createUserDTOs(size);
+    }
+
+    @Benchmark
+    public byte[] json() throws JsonProcessingException {
+        return jsonMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] xml() throws JsonProcessingException {
+        return xmlMapper.writeValueAsBytes(users);
+    }
+}
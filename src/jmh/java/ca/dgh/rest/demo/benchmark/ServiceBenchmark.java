@@ -0,0 +1,104 @@
+package ca.dgh.rest.demo.benchmark;
+
+import ca.dgh.rest.demo.model.dto.ProvinceDTO;
+import ca.dgh.rest.demo.model.dto.UserDTO;
+import ca.dgh.rest.demo.service.ProvinceService;
+import ca.dgh.rest.demo.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the read paths of the services against an H2 database holding {@link #fixtureSize} users. Cached variants
+ * hit a warm cache, uncached variants clear the cache first so every call goes to the database.
+ * <p />
+ * The fixture size can be changed without recompiling with {@code ./gradlew jmh -PfixtureSize=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    /**
+     * The number of users in the database.
+     */
+    @Param({"1000", "100000"})
+    int fixtureSize;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private ProvinceService provinceService;
+
+    private UUID userId;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkFixtures.startApplication(fixtureSize);
+        userService = context.getBean(UserService.class);
+        provinceService = context.getBean(ProvinceService.class);
+        userId = userService.getPageAfter(null, 1).getContent().get(0).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserDTO> getAllCached() {
+        return userService.getAll();
+    }
+
+    @Benchmark
+    public List<UserDTO> getAllUncached() {
+        userService.clearCache();
+        return userService.getAll();
+    }
+
+    @Benchmark
+    public Optional<UserDTO> getByIdCached() {
+        return userService.getById(userId);
+    }
+
+    @Benchmark
+    public Optional<UserDTO> getByIdUncached() {
+        userService.clearCache();
+        return userService.getById(userId);
+    }
+
+    /**
+     * A name that is in the lookup table, matched regardless of case and accents.
+     */
+    @Benchmark
+    public Optional<ProvinceDTO> getProvinceByName() {
+        return provinceService.getProvinceByName("nouvelle-ecosse");
+    }
+
+    /**
+     * A name that is not in the lookup table, which falls back to the indexed search key columns.
+     */
+    @Benchmark
+    public Optional<ProvinceDTO> getProvinceByNameMiss() {
+        return provinceService.getProvinceByName("Atlantis");
+    }
+}
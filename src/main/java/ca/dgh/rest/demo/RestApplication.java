@@ -2,12 +2,21 @@ package ca.dgh.rest.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class RestApplication {
 
+    /**
+     * The number of startup steps recorded, enough for a whole start of this application.
+     */
+    private static final int STARTUP_STEPS = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(RestApplication.class, args);
+        SpringApplication application = new SpringApplication(RestApplication.class);
+        // Record how long each step of the start takes, the timeline is reported by /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
     }
 
 }
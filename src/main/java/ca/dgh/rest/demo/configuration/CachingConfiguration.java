@@ -1,15 +1,78 @@
 package ca.dgh.rest.demo.configuration;
 
+import ca.dgh.rest.demo.service.AccessFrequencyRecorder;
+import ca.dgh.rest.demo.service.AccessRecordingAspect;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables caching for the application. Each service extending
+ * {@link ca.dgh.rest.demo.service.AbstractDTOAwareService} gets its own cache, configured through
+ * {@link DTOCacheProperties}.
+ */
+@Configuration
+@EnableCaching(order = CachingConfiguration.CACHE_ADVISOR_ORDER)
+@EnableConfigurationProperties(DTOCacheProperties.class)
 public class CachingConfiguration {
+
+    /**
+     * The name of the resolver that hands each service its own cache.
+     */
+    public static final String CACHE_RESOLVER_NAME = "dtoCacheResolver";
+
     /**
-     * All fields in this class should be statically accessed. So we make it impossible
-     * to instantiate this class.
+     * The order of the caching interceptor. It is given explicitly so that the service metrics can tell cache hits
+     * from misses by running one aspect outside of it and another inside of it.
      */
-    private CachingConfiguration() {
+    public static final int CACHE_ADVISOR_ORDER = 0;
+
+    /**
+     * @param properties the settings of every cache.
+     * @return the cache manager that builds and holds every cache.
+     */
+    @Bean
+    public DTOCacheManager cacheManager(DTOCacheProperties properties) {
+        return new DTOCacheManager(properties);
     }
 
     /**
-     * The name of a weak sauce resolver.
+     * @param cacheManager the cache manager that holds every cache.
+     * @return the resolver referenced by {@link #CACHE_RESOLVER_NAME} in the caching annotations.
      */
-    public static final String CACHE_RESOLVER_NAME = "simple cache resolver";
+    @Bean(CACHE_RESOLVER_NAME)
+    public CacheResolver cacheResolver(CacheManager cacheManager) {
+        return new DTOCacheResolver(cacheManager);
+    }
+
+    /**
+     * @return the provider that publishes the metrics of caches that refresh ahead.
+     */
+    @Bean
+    public RefreshAheadCacheMeterBinderProvider refreshAheadCacheMeterBinderProvider() {
+        return new RefreshAheadCacheMeterBinderProvider();
+    }
+
+    /**
+     * @param properties   the settings of every cache, including the warm-up.
+     * @param objectMapper the object mapper of the application, used to save the read counts.
+     * @return the recorder counting the reads the cache warm-up is based on.
+     */
+    @Bean
+    public AccessFrequencyRecorder accessFrequencyRecorder(DTOCacheProperties properties, ObjectMapper objectMapper) {
+        return new AccessFrequencyRecorder(properties.getWarmUp().getTrackedIds(), objectMapper);
+    }
+
+    /**
+     * @param recorder the recorder counting the reads.
+     * @return the aspect counting every object read by id.
+     */
+    @Bean
+    public AccessRecordingAspect accessRecordingAspect(AccessFrequencyRecorder recorder) {
+        return new AccessRecordingAspect(recorder);
+    }
 }
@@ -0,0 +1,126 @@
+package ca.dgh.rest.demo.configuration;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link DataSource} that lets at most a fixed number of threads hold a connection at once. The others wait in a fair
+ * queue until a connection is closed, or give up after a timeout.
+ * <p />
+ * With virtual threads there is no longer a request thread pool to bound how many requests reach the database, so
+ * thousands of threads can pile up on the connection pool. Making them queue here, with the limit set to the size of
+ * the pool, keeps waiting cheap and ordered and leaves the pool to hand out connections rather than time them out.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    /**
+     * The permits of the threads currently holding a connection.
+     */
+    private final Semaphore permits;
+
+    /**
+     * How long a thread waits for a permit before giving up.
+     */
+    private final Duration timeout;
+
+    /**
+     * @param targetDataSource the data source handing out the connections.
+     * @param maxConcurrency   the maximum number of connections held at once.
+     * @param timeout          how long a thread waits for a connection before giving up.
+     */
+    public ConcurrencyLimitingDataSource(DataSource targetDataSource, int maxConcurrency, Duration timeout) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Close the target data source if it can be closed, such as a connection pool. The wrapper replaces the pool as a
+     * bean, so this is what shuts the pool down with the application.
+     *
+     * @throws Exception when the target fails to close.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * @return the number of threads waiting for a connection.
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Wait for a permit to hold a connection.
+     *
+     * @throws SQLException when no permit became available in time or the thread was interrupted.
+     */
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("No connection became available within " + timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    /**
+     * Wrap a connection so that closing it releases its permit, once.
+     *
+     * @param connection the connection to wrap.
+     * @return the wrapped connection.
+     */
+    private Connection releaseOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,206 @@
+package ca.dgh.rest.demo.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.jcache.JCacheCache;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.cache.Caching;
+import java.io.Serializable;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A {@link org.springframework.cache.CacheManager} that builds every cache from its {@link DTOCacheProperties.CacheSpec}.
+ * Heap caches are backed by Caffeine and off-heap caches by Ehcache (through its JCache API). Both record hit, miss
+ * and eviction statistics so that the actuator can publish them as {@code cache.*} metrics. The time to live of every
+ * entry is shortened by a random jitter so that entries loaded together don't all expire together. Caches configured
+ * to refresh ahead are wrapped in a {@link RefreshAheadCache}.
+ * <p />
+ * Caches listed in the configuration are created on start up so that they are bound to the metrics registry. Any
+ * other cache requested at runtime is created on demand using the default settings.
+ */
+public class DTOCacheManager extends AbstractCacheManager implements DisposableBean {
+
+    /**
+     * The URI of the JCache manager that holds all off-heap caches created by this class.
+     */
+    private static final URI OFF_HEAP_CACHE_MANAGER_URI = URI.create("urn:rest-demo:dto-cache");
+
+    /**
+     * The settings of all caches managed by this class.
+     */
+    private final DTOCacheProperties properties;
+
+    /**
+     * The JCache manager holding all off-heap caches. It is only created once an off-heap cache is needed.
+     */
+    private javax.cache.CacheManager offHeapCacheManager;
+
+    /**
+     * The executor running the background reloads of all refresh-ahead caches. When it is saturated, the reading
+     * thread runs the reload itself rather than dropping it.
+     */
+    private final ExecutorService refreshExecutor;
+
+    /**
+     * @param properties the settings of all caches managed by this class.
+     */
+    public DTOCacheManager(DTOCacheProperties properties) {
+        this.properties = properties;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-refresh-");
+        threadFactory.setDaemon(true);
+        this.refreshExecutor = new ThreadPoolExecutor(properties.getRefreshThreads(), properties.getRefreshThreads(),
+                0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(1_000), threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Create all caches that have been explicitly configured.
+     *
+     * @return the configured caches.
+     */
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return properties.getCaches().keySet().stream().map(this::createCache).toList();
+    }
+
+    /**
+     * Create a cache that has not been configured explicitly using the default settings.
+     *
+     * @param name the name of the cache.
+     * @return the newly created cache.
+     */
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    /**
+     * Stop the background reloads and close the off-heap cache manager, releasing the memory it reserved.
+     */
+    @Override
+    public synchronized void destroy() {
+        refreshExecutor.shutdownNow();
+        if (offHeapCacheManager != null) {
+            offHeapCacheManager.close();
+            offHeapCacheManager = null;
+        }
+    }
+
+    /**
+     * Build a cache with the given name using the storage it is configured for.
+     *
+     * @param name the name of the cache.
+     * @return the newly created cache.
+     */
+    Cache createCache(String name) {
+        DTOCacheProperties.CacheSpec spec = properties.getSpec(name);
+        Cache cache = switch (spec.getStorage()) {
+            case HEAP -> createHeapCache(name, spec);
+            case OFF_HEAP -> createOffHeapCache(name, spec);
+        };
+        return spec.getRefreshAhead() ? new RefreshAheadCache(cache, spec.refreshAfterDuration(), refreshExecutor) : cache;
+    }
+
+    /**
+     * Build a Caffeine cache that is bounded by number of entries.
+     *
+     * @param name the name of the cache.
+     * @param spec the settings of the cache.
+     * @return the newly created cache.
+     */
+    private Cache createHeapCache(String name, DTOCacheProperties.CacheSpec spec) {
+        return new CaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfter(new Expiry<Object, Object>() {
+                    @Override
+                    public long expireAfterCreate(Object key, Object value, long currentTime) {
+                        return spec.jitteredTimeToLive().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                        return spec.jitteredTimeToLive().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build(), true);
+    }
+
+    /**
+     * Build an Ehcache cache that is bounded by the amount of off-heap memory it may use. Keys and values are stored
+     * using Java serialization, which is why {@link ca.dgh.rest.demo.model.dto.AbstractDTO} is {@link Serializable}.
+     *
+     * @param name the name of the cache.
+     * @param spec the settings of the cache.
+     * @return the newly created cache.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Cache createOffHeapCache(String name, DTOCacheProperties.CacheSpec spec) {
+        CacheConfiguration<Serializable, Serializable> configuration = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Serializable.class, Serializable.class,
+                        ResourcePoolsBuilder.newResourcePoolsBuilder()
+                                .offheap(spec.getOffHeapSize().toMegabytes(), MemoryUnit.MB))
+                .withExpiry(new ExpiryPolicy<Serializable, Serializable>() {
+                    @Override
+                    public Duration getExpiryForCreation(Serializable key, Serializable value) {
+                        return spec.jitteredTimeToLive();
+                    }
+
+                    @Override
+                    public Duration getExpiryForAccess(Serializable key, Supplier<? extends Serializable> value) {
+                        return null;
+                    }
+
+                    @Override
+                    public Duration getExpiryForUpdate(Serializable key, Supplier<? extends Serializable> oldValue,
+                                                       Serializable newValue) {
+                        return spec.jitteredTimeToLive();
+                    }
+                })
+                .build();
+        javax.cache.CacheManager cacheManager = getOffHeapCacheManager();
+        javax.cache.Cache<Serializable, Serializable> cache = cacheManager.createCache(name,
+                Eh107Configuration.fromEhcacheCacheConfiguration(configuration));
+        cacheManager.enableStatistics(name, true);
+        return new JCacheCache((javax.cache.Cache) cache, true);
+    }
+
+    /**
+     * @return the JCache manager holding all off-heap caches, creating it if needed.
+     */
+    private synchronized javax.cache.CacheManager getOffHeapCacheManager() {
+        if (offHeapCacheManager == null) {
+            ClassLoader classLoader = getClass().getClassLoader();
+            EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                    EhcacheCachingProvider.class.getName(), classLoader);
+            offHeapCacheManager = provider.getCacheManager(OFF_HEAP_CACHE_MANAGER_URI,
+                    new DefaultConfiguration(classLoader));
+        }
+        return offHeapCacheManager;
+    }
+}
@@ -0,0 +1,237 @@
+package ca.dgh.rest.demo.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The settings used by the {@link DTOCacheManager} to build one cache per service. Every cache falls back to the
+ * values in {@link #getDefaults()} for any setting it does not declare itself.
+ * <pre>
+ * demo:
+ *   cache:
+ *     defaults:
+ *       maximum-size: 10000
+ *       time-to-live: 30m
+ *       jitter: 0.1
+ *     caches:
+ *       province:
+ *         refresh-ahead: true
+ *       user:
+ *         storage: off-heap
+ *         off-heap-size: 64MB
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "demo.cache")
+public class DTOCacheProperties {
+
+    /**
+     * The settings applied to every cache unless the cache overrides them.
+     */
+    private CacheSpec defaults = CacheSpec.builtInDefaults();
+
+    /**
+     * Settings for individual caches keyed by cache name. Cache names are lower case, see
+     * {@link ca.dgh.rest.demo.service.AbstractDTOAwareService#getCacheName()}.
+     */
+    private Map<String, CacheSpec> caches = new LinkedHashMap<>();
+
+    /**
+     * How often caches that don't refresh ahead are cleared completely.
+     */
+    private Duration clearInterval = Duration.ofMinutes(30);
+
+    /**
+     * The number of threads used to reload entries of {@link CacheSpec#getRefreshAhead() refresh-ahead} caches in
+     * the background.
+     */
+    private int refreshThreads = 2;
+
+    /**
+     * How the caches are warmed up on startup and after they are cleared on a schedule.
+     */
+    private WarmUp warmUp = new WarmUp();
+
+    /**
+     * Get the effective settings for the given cache, merging any explicit settings with the defaults.
+     *
+     * @param name the name of the cache.
+     * @return the settings to use when building the cache.
+     */
+    public CacheSpec getSpec(String name) {
+        CacheSpec fallback = defaults.merge(CacheSpec.builtInDefaults());
+        CacheSpec spec = caches.get(name);
+        return spec == null ? fallback : spec.merge(fallback);
+    }
+
+    /**
+     * Where the entries of a cache are stored.
+     */
+    public enum Storage {
+        /**
+         * Entries live on the Java heap as plain object references. This is the fastest option.
+         */
+        HEAP,
+        /**
+         * Entries are serialized into memory outside the Java heap. This keeps large caches from adding to garbage
+         * collection pressure at the cost of a serialization round trip on every read and write.
+         */
+        OFF_HEAP
+    }
+
+    /**
+     * The settings of the cache warm-up, see {@link ca.dgh.rest.demo.service.CacheWarmUpService}.
+     */
+    @Getter
+    @Setter
+    public static class WarmUp {
+
+        /**
+         * Whether the caches are warmed up at all.
+         */
+        private boolean enabled = true;
+
+        /**
+         * The number of most read objects loaded into each cache.
+         */
+        private int hottestIds = 1000;
+
+        /**
+         * The number of objects whose reads are counted for each cache. Once that many are counted, every count is
+         * halved and the objects whose count drops to zero are forgotten, so objects that are no longer read make way
+         * for new ones.
+         */
+        private int trackedIds = 10_000;
+
+        /**
+         * The number of objects loaded at once.
+         */
+        private int parallelism = 4;
+
+        /**
+         * The maximum number of objects loaded per second, across all threads.
+         */
+        private int rate = 200;
+
+        /**
+         * How long the start of the application waits for the warm-up. Whatever isn't loaded by then is left to the
+         * first requests. Zero doesn't wait at all, and the warm-up runs in the background.
+         */
+        private Duration timeout = Duration.ofMinutes(1);
+
+        /**
+         * The file the read counts are saved to, so that the next start knows which objects to load. Counts are only
+         * kept in memory when this is not set.
+         */
+        private Path snapshotFile;
+
+        /**
+         * How often the read counts are saved.
+         */
+        private Duration snapshotInterval = Duration.ofMinutes(5);
+    }
+
+    /**
+     * The settings of a single cache. Any {@code null} value means "use the default".
+     */
+    @Getter
+    @Setter
+    public static class CacheSpec {
+
+        /**
+         * The maximum number of entries held by a {@link Storage#HEAP} cache.
+         */
+        private Long maximumSize;
+
+        /**
+         * How long an entry lives after it has been written.
+         */
+        private Duration timeToLive;
+
+        /**
+         * Where the entries are stored.
+         */
+        private Storage storage;
+
+        /**
+         * The amount of memory reserved by a {@link Storage#OFF_HEAP} cache. Off-heap caches are bounded by size in
+         * bytes rather than by number of entries.
+         */
+        private DataSize offHeapSize;
+
+        /**
+         * When {@code true}, entries that are read after {@link #getRefreshAfter()} of their time to live has passed
+         * are reloaded in the background while the current value keeps being served. Such caches are not cleared on
+         * a schedule.
+         */
+        private Boolean refreshAhead;
+
+        /**
+         * The fraction of the time to live after which an entry of a refresh-ahead cache is reloaded.
+         */
+        private Double refreshAfter;
+
+        /**
+         * The largest fraction by which the time to live of an entry is randomly shortened. This keeps entries loaded
+         * at the same time, on one node or across many, from expiring at the same time.
+         */
+        private Double jitter;
+
+        /**
+         * @return the time to live of a new entry, randomly shortened by up to {@link #getJitter()}.
+         */
+        public Duration jitteredTimeToLive() {
+            double factor = 1 - jitter * ThreadLocalRandom.current().nextDouble();
+            return Duration.ofMillis((long) (timeToLive.toMillis() * factor));
+        }
+
+        /**
+         * @return how long after being loaded an entry of a refresh-ahead cache should be reloaded.
+         */
+        public Duration refreshAfterDuration() {
+            return Duration.ofMillis((long) (timeToLive.toMillis() * refreshAfter));
+        }
+
+        /**
+         * Create a new specification where every value missing in this one is taken from the fallback.
+         *
+         * @param fallback the specification providing values that are not set in this one.
+         * @return a new, fully populated specification.
+         */
+        CacheSpec merge(CacheSpec fallback) {
+            CacheSpec merged = new CacheSpec();
+            merged.setMaximumSize(maximumSize != null ? maximumSize : fallback.getMaximumSize());
+            merged.setTimeToLive(timeToLive != null ? timeToLive : fallback.getTimeToLive());
+            merged.setStorage(storage != null ? storage : fallback.getStorage());
+            merged.setOffHeapSize(offHeapSize != null ? offHeapSize : fallback.getOffHeapSize());
+            merged.setRefreshAhead(refreshAhead != null ? refreshAhead : fallback.getRefreshAhead());
+            merged.setRefreshAfter(refreshAfter != null ? refreshAfter : fallback.getRefreshAfter());
+            merged.setJitter(jitter != null ? jitter : fallback.getJitter());
+            return merged;
+        }
+
+        /**
+         * @return the values used when nothing has been configured at all.
+         */
+        static CacheSpec builtInDefaults() {
+            CacheSpec spec = new CacheSpec();
+            spec.setMaximumSize(10_000L);
+            spec.setTimeToLive(Duration.ofMinutes(30));
+            spec.setStorage(Storage.HEAP);
+            spec.setOffHeapSize(DataSize.ofMegabytes(32));
+            spec.setRefreshAhead(false);
+            spec.setRefreshAfter(0.75);
+            spec.setJitter(0.1);
+            return spec;
+        }
+    }
+}
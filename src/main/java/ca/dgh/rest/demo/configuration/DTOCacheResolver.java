@@ -0,0 +1,82 @@
+package ca.dgh.rest.demo.configuration;
+
+import ca.dgh.rest.demo.service.AbstractDTOAwareService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.util.ClassUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolves the cache of the service a cached method has been called on, so that every concrete
+ * {@link AbstractDTOAwareService} gets its own cache without having to name it in each annotation.
+ * <p />
+ * If the annotation does name caches, those names are taken as relative to the cache of the service. For example
+ * {@code @Cacheable(cacheNames = "derived", ...)} on the {@code province} service resolves to {@code province-derived}.
+ * <p />
+ * A service that has turned its object cache off, see {@link AbstractDTOAwareService#isObjectCacheEnabled()}, gets a
+ * cache that stores nothing in its place, so its inherited cache annotations always call through.
+ */
+public class DTOCacheResolver implements CacheResolver {
+
+    /**
+     * The cache manager that holds the caches this resolver hands out.
+     */
+    private final CacheManager cacheManager;
+
+    /**
+     * @param cacheManager the cache manager that holds the caches this resolver hands out.
+     */
+    public DTOCacheResolver(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Return the cache belonging to the target of the invocation.
+     *
+     * @param context the context of the particular invocation
+     * @return the cache belonging to the target of the invocation.
+     */
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        Object target = context.getTarget();
+        String cacheName = getCacheName(target);
+        Set<String> relativeNames = context.getOperation().getCacheNames();
+        if (relativeNames.isEmpty()) {
+            if (target instanceof AbstractDTOAwareService<?, ?> service && !service.isObjectCacheEnabled()) {
+                return List.of(new NoOpCache(cacheName));
+            }
+            return List.of(cacheManager.getCache(cacheName));
+        }
+        return relativeNames.stream().map(name -> cacheManager.getCache(getCacheName(cacheName, name))).toList();
+    }
+
+    /**
+     * Get the full name of a cache named relative to the cache of a service.
+     *
+     * @param cacheName    the name of the cache of the service.
+     * @param relativeName the name relative to it, for example {@code derived}.
+     * @return the full name of the cache, for example {@code province-derived}.
+     */
+    public static String getCacheName(String cacheName, String relativeName) {
+        return cacheName + "-" + relativeName;
+    }
+
+    /**
+     * Get the name of the cache that belongs to the given object.
+     *
+     * @param target the object a cached method has been called on.
+     * @return the name of the cache.
+     */
+    static String getCacheName(Object target) {
+        if (target instanceof AbstractDTOAwareService<?, ?> service) {
+            return service.getCacheName();
+        }
+        return ClassUtils.getUserClass(target).getSimpleName();
+    }
+}
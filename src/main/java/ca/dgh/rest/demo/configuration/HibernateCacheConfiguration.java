@@ -0,0 +1,88 @@
+package ca.dgh.rest.demo.configuration;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Sets up the Hibernate second-level and query caches. Every region is created here, bounded and with a time to live,
+ * and Hibernate is configured to fail rather than create a region nobody sized.
+ * <p />
+ * Regions are local to each instance, like the DTO caches, so writes made by other instances are only picked up once
+ * an entry expires. The province regions expire as often as the province lookup table is reloaded for that reason.
+ */
+@Configuration
+public class HibernateCacheConfiguration {
+
+    /**
+     * The region holding {@link ca.dgh.rest.demo.model.Province} entities.
+     */
+    public static final String PROVINCE_REGION = "entity.province";
+
+    /**
+     * The region holding {@link ca.dgh.rest.demo.model.User} entities.
+     */
+    public static final String USER_REGION = "entity.user";
+
+    /**
+     * @return the JCache manager holding every region, closed with the application.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        ClassLoader classLoader = getClass().getClassLoader();
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName(), classLoader);
+        // Each application context gets its own manager, so contexts started side by side don't share regions.
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:rest-demo:hibernate-cache:" + UUID.randomUUID()), new DefaultConfiguration(classLoader));
+        createRegion(cacheManager, PROVINCE_REGION, 1_000, Duration.ofMinutes(5));
+        createRegion(cacheManager, USER_REGION, 10_000, Duration.ofMinutes(30));
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, 1_000,
+                Duration.ofMinutes(5));
+        // Cached query results are checked against these timestamps, so they must outlive the results.
+        createRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 1_000, null);
+        return cacheManager;
+    }
+
+    /**
+     * @param hibernateCacheManager the JCache manager holding every region.
+     * @return the customizer handing the JCache manager to Hibernate.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * Create a region on the heap with the given bounds. Statistics are enabled on every region so that they can be
+     * read through JMX as well as through Hibernate's own statistics.
+     *
+     * @param cacheManager the JCache manager the region is created in.
+     * @param name         the name of the region.
+     * @param entries      the maximum number of entries kept.
+     * @param timeToLive   how long an entry is kept, or {@code null} if entries never expire.
+     */
+    private static void createRegion(CacheManager cacheManager, String name, long entries, Duration timeToLive) {
+        cacheManager.createCache(name, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                ResourcePoolsBuilder.heap(entries))
+                        .withExpiry(timeToLive == null ? ExpiryPolicyBuilder.noExpiration()
+                                : ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive))
+                        .build()));
+        cacheManager.enableStatistics(name, true);
+    }
+}
@@ -0,0 +1,45 @@
+package ca.dgh.rest.demo.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code Cache-Control} policy sent with the responses of every controller, keyed by the cache name of the
+ * service behind the controller. Responses are revalidated on every use unless a service says otherwise, which is
+ * cheap since unchanged responses are answered with {@code 304 Not Modified}.
+ * <pre>
+ * demo:
+ *   http-cache:
+ *     default-cache-control: no-cache
+ *     cache-control:
+ *       province: max-age=300, must-revalidate
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "demo.http-cache")
+public class HttpCacheProperties {
+
+    /**
+     * The policy of every service that isn't listed in {@link #getCacheControl()}.
+     */
+    private String defaultCacheControl = "no-cache";
+
+    /**
+     * The policy of individual services keyed by cache name. Cache names are lower case, see
+     * {@link ca.dgh.rest.demo.service.AbstractDTOAwareService#getCacheName()}.
+     */
+    private Map<String, String> cacheControl = new LinkedHashMap<>();
+
+    /**
+     * @param name the cache name of the service.
+     * @return the {@code Cache-Control} header to send with the responses built from the given service.
+     */
+    public String cacheControlFor(String name) {
+        return name == null ? defaultCacheControl : cacheControl.getOrDefault(name, defaultCacheControl);
+    }
+}
@@ -0,0 +1,33 @@
+package ca.dgh.rest.demo.configuration;
+
+import ca.dgh.rest.demo.controller.ConditionalRequestInterceptor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Enables HTTP caching of the API responses: conditional requests are answered with {@code 304 Not Modified} when
+ * nothing changed, and every response gets the {@code Cache-Control} policy configured in {@link HttpCacheProperties}.
+ */
+@Configuration
+@EnableConfigurationProperties(HttpCacheProperties.class)
+public class HttpCachingConfiguration implements WebMvcConfigurer {
+
+    /**
+     * The {@code Cache-Control} policy of every service.
+     */
+    private final HttpCacheProperties properties;
+
+    /**
+     * @param properties the {@code Cache-Control} policy of every service.
+     */
+    public HttpCachingConfiguration(HttpCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConditionalRequestInterceptor(properties)).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,90 @@
+package ca.dgh.rest.demo.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Sends read-only transactions, which every read of {@link ca.dgh.rest.demo.service.AbstractDTOAwareService} runs in,
+ * to a read replica and everything else to the primary database. This is only applied when
+ * {@code demo.datasource.replica.enabled} is {@code true}, see {@link ReplicaDataSourceProperties}.
+ * <p />
+ * The primary is configured under {@code spring.datasource} as usual, so migrations and writes are unaffected. Reads go
+ * back to the primary while the replica is unreachable or lags behind by more than
+ * {@link ReplicaDataSourceProperties#getMaxLag()}. Reads made straight after a write may still miss it while it
+ * reaches the replica; the caches are patched by the write itself, so this mostly concerns uncached reads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "demo.datasource.replica.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReadReplicaConfiguration {
+
+    /**
+     * @param properties the settings of {@code spring.datasource}.
+     * @return the connection pool of the primary database.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * @param properties the settings of the replica.
+     * @return the connection pool of the replica.
+     */
+    @Bean
+    @ConfigurationProperties("demo.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaDataSourceProperties properties) {
+        return DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .driverClassName(properties.getDriverClassName())
+                .build();
+    }
+
+    /**
+     * @param replicaDataSource the connection pool of the replica.
+     * @param properties        the settings of the replica.
+     * @param meterRegistry     the registry the availability of the replica is published to.
+     * @return the monitor checking that the replica may be read from.
+     */
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               ReplicaDataSourceProperties properties, MeterRegistry meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaDataSource, properties.getLagQuery(),
+                properties.getMaxLag());
+        Gauge.builder("demo.datasource.replica.available", monitor, m -> m.getAsBoolean() ? 1 : 0)
+                .description("Whether read-only transactions are sent to the replica")
+                .register(meterRegistry);
+        return monitor;
+    }
+
+    /**
+     * @param primaryDataSource the connection pool of the primary database.
+     * @param replicaDataSource the connection pool of the replica.
+     * @param replicaLagMonitor tells whether the replica may be read from.
+     * @return the data source of the application, routing each transaction to the primary or the replica.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor));
+    }
+}
@@ -0,0 +1,49 @@
+package ca.dgh.rest.demo.configuration;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A {@link DataSource} that hands out connections to the replica within read-only transactions, and to the primary
+ * otherwise. Reads go back to the primary whenever the replica is unavailable or too far behind.
+ * <p />
+ * Whether the transaction is read-only is only known once it has started, after the transaction manager has asked
+ * for a connection, so this must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * that only asks for the connection when the first statement is run.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * The data sources this routes between.
+     */
+    enum Route {
+        PRIMARY, REPLICA
+    }
+
+    /**
+     * Tells whether the replica may currently be read from.
+     */
+    private final BooleanSupplier replicaAvailable;
+
+    /**
+     * @param primary          the data source that every write and every read outside a read-only transaction goes to.
+     * @param replica          the data source that reads within read-only transactions go to.
+     * @param replicaAvailable tells whether the replica may currently be read from.
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, BooleanSupplier replicaAvailable) {
+        this.replicaAvailable = replicaAvailable;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaAvailable.getAsBoolean()
+                ? Route.REPLICA : Route.PRIMARY;
+    }
+}
@@ -0,0 +1,203 @@
+package ca.dgh.rest.demo.configuration;
+
+import lombok.Getter;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.io.Serializable;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link Cache} decorator that reloads entries in the background before they expire, and collapses concurrent loads
+ * of the same key into a single call to the loader.
+ * <p />
+ * Reloading only happens for reads that supply a loader, which is what {@code @Cacheable(sync = true)} does. Once an
+ * entry is older than its refresh threshold, the first such read schedules a reload and keeps returning the current
+ * value until the reload has finished. A read that misses waits for the load already in flight for its key, if any,
+ * instead of starting its own.
+ */
+public class RefreshAheadCache implements Cache {
+
+    /**
+     * The cache that actually stores the entries.
+     */
+    @Getter
+    private final Cache delegate;
+
+    /**
+     * How long after being loaded an entry should be reloaded.
+     */
+    private final Duration refreshAfter;
+
+    /**
+     * The executor running background reloads.
+     */
+    private final Executor refreshExecutor;
+
+    /**
+     * The clock used to time entries.
+     */
+    private final Clock clock;
+
+    /**
+     * The loads in flight, keyed by cache key.
+     */
+    private final Map<Object, CompletableFuture<Entry>> loadsInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate        the cache that actually stores the entries.
+     * @param refreshAfter    how long after being loaded an entry should be reloaded.
+     * @param refreshExecutor the executor running background reloads.
+     */
+    public RefreshAheadCache(Cache delegate, Duration refreshAfter, Executor refreshExecutor) {
+        this(delegate, refreshAfter, refreshExecutor, Clock.systemUTC());
+    }
+
+    /**
+     * @param delegate        the cache that actually stores the entries.
+     * @param refreshAfter    how long after being loaded an entry should be reloaded.
+     * @param refreshExecutor the executor running background reloads.
+     * @param clock           the clock used to time entries.
+     */
+    RefreshAheadCache(Cache delegate, Duration refreshAfter, Executor refreshExecutor, Clock clock) {
+        this.delegate = delegate;
+        this.refreshAfter = refreshAfter;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Entry entry = getEntry(key);
+        return entry == null ? null : new SimpleValueWrapper(entry.value());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        Entry entry = getEntry(key);
+        if (entry == null || entry.value() == null) {
+            return null;
+        }
+        if (type != null && !type.isInstance(entry.value())) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: "
+                    + entry.value());
+        }
+        return (T) entry.value();
+    }
+
+    /**
+     * Return the cached value, loading it if it is missing and scheduling a background reload if it is getting old.
+     *
+     * @param key         the key whose associated value is to be returned
+     * @param valueLoader the loader used when the value is missing or has to be refreshed.
+     * @return the value to which this cache maps the specified key
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Entry entry = getEntry(key);
+        if (entry == null) {
+            try {
+                entry = load(key, valueLoader, Runnable::run).join();
+            } catch (CompletionException ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+            }
+        } else if (entry.refreshAt() <= clock.millis()) {
+            load(key, valueLoader, refreshExecutor);
+        }
+        return (T) entry.value();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        loadsInFlight.remove(key);
+        delegate.put(key, newEntry(value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        loadsInFlight.remove(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        loadsInFlight.clear();
+        delegate.clear();
+    }
+
+    /**
+     * Load the value for the given key unless a load is already in flight, in which case that load is returned.
+     * The result is only stored if no write for the same key happened while it was loading, so a slow reload can't
+     * overwrite newer data.
+     *
+     * @param key         the key to load.
+     * @param valueLoader the loader producing the value.
+     * @param executor    the executor to run the load on.
+     * @return the load of the given key.
+     */
+    private CompletableFuture<Entry> load(Object key, Callable<?> valueLoader, Executor executor) {
+        CompletableFuture<Entry> load = new CompletableFuture<>();
+        CompletableFuture<Entry> existingLoad = loadsInFlight.putIfAbsent(key, load);
+        if (existingLoad != null) {
+            return existingLoad;
+        }
+        executor.execute(() -> {
+            try {
+                Entry entry = newEntry(valueLoader.call());
+                if (loadsInFlight.remove(key, load)) {
+                    delegate.put(key, entry);
+                }
+                load.complete(entry);
+            } catch (Throwable ex) {
+                loadsInFlight.remove(key, load);
+                load.completeExceptionally(ex);
+            }
+        });
+        return load;
+    }
+
+    /**
+     * @param key the key to look up.
+     * @return the entry stored in the delegate for the given key, or {@code null} if there is none.
+     */
+    private Entry getEntry(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        return wrapper == null ? null : (Entry) wrapper.get();
+    }
+
+    /**
+     * @param value the value to store.
+     * @return a new entry for the given value that is due for a refresh after {@link #refreshAfter}.
+     */
+    private Entry newEntry(Object value) {
+        return new Entry(value, clock.millis() + refreshAfter.toMillis());
+    }
+
+    /**
+     * What this cache stores in its delegate.
+     *
+     * @param value     the cached value.
+     * @param refreshAt the time, in epoch milliseconds, after which the value should be reloaded.
+     */
+    record Entry(Object value, long refreshAt) implements Serializable {
+    }
+}
@@ -0,0 +1,44 @@
+package ca.dgh.rest.demo.configuration;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.JCacheCacheMeterBinderProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.jcache.JCacheCache;
+
+/**
+ * Publishes the statistics of the cache wrapped by a {@link RefreshAheadCache}. Without this the actuator would not
+ * recognise the decorator and the cache would have no {@code cache.*} metrics.
+ */
+public class RefreshAheadCacheMeterBinderProvider implements CacheMeterBinderProvider<RefreshAheadCache> {
+
+    /**
+     * Binds the metrics of heap caches.
+     */
+    private final CaffeineCacheMeterBinderProvider caffeineProvider = new CaffeineCacheMeterBinderProvider();
+
+    /**
+     * Binds the metrics of off-heap caches.
+     */
+    private final JCacheCacheMeterBinderProvider jCacheProvider = new JCacheCacheMeterBinderProvider();
+
+    /**
+     * @param cache the cache to instrument
+     * @param tags  tags to apply to all recorded metrics
+     * @return the binder of the wrapped cache, or {@code null} if it is of an unknown type.
+     */
+    @Override
+    public MeterBinder getMeterBinder(RefreshAheadCache cache, Iterable<Tag> tags) {
+        Cache delegate = cache.getDelegate();
+        if (delegate instanceof CaffeineCache caffeineCache) {
+            return caffeineProvider.getMeterBinder(caffeineCache, tags);
+        }
+        if (delegate instanceof JCacheCache jCacheCache) {
+            return jCacheProvider.getMeterBinder(jCacheCache, tags);
+        }
+        return null;
+    }
+}
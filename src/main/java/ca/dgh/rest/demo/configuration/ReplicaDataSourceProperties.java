@@ -0,0 +1,74 @@
+package ca.dgh.rest.demo.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The settings of the read replica that read-only transactions are sent to, see {@link ReadReplicaConfiguration}. The
+ * connection pool of the replica is configured under {@code hikari}, like the one of the primary under
+ * {@code spring.datasource.hikari}.
+ * <pre>
+ * demo:
+ *   datasource:
+ *     replica:
+ *       enabled: true
+ *       url: jdbc:postgresql://replica:5432/demo
+ *       username: demo
+ *       password: secret
+ *       lag-query: SELECT COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+ *       max-lag: 5s
+ *       hikari:
+ *         maximum-pool-size: 20
+ *         read-only: true
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "demo.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /**
+     * Whether read-only transactions are sent to the replica. When {@code false}, everything goes to
+     * {@code spring.datasource}.
+     */
+    private boolean enabled;
+
+    /**
+     * The JDBC URL of the replica.
+     */
+    private String url;
+
+    /**
+     * The user to connect to the replica as.
+     */
+    private String username;
+
+    /**
+     * The password of the user.
+     */
+    private String password;
+
+    /**
+     * The JDBC driver class, worked out from the URL when not given.
+     */
+    private String driverClassName;
+
+    /**
+     * A query run on the replica returning how many seconds it is behind the primary. When not given, the replica is
+     * only checked to be reachable.
+     */
+    private String lagQuery;
+
+    /**
+     * How far behind the primary the replica may be before reads are sent to the primary instead.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * How often the lag of the replica is checked.
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,72 @@
+package ca.dgh.rest.demo.configuration;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Checks on a schedule that the replica is reachable and close enough behind the primary to be read from. Until the
+ * first check succeeds, and whenever a check fails, reads are sent to the primary.
+ */
+public class ReplicaLagMonitor implements BooleanSupplier {
+
+    /**
+     * Runs the checks on the replica.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The query returning the lag of the replica in seconds, or {@code null} to only check that it is reachable.
+     */
+    private final String lagQuery;
+
+    /**
+     * How far behind the primary the replica may be.
+     */
+    private final Duration maxLag;
+
+    /**
+     * Whether the replica passed the last check.
+     */
+    private volatile boolean available;
+
+    /**
+     * @param replica  the replica to check.
+     * @param lagQuery the query returning the lag of the replica in seconds, or {@code null} to only check that it is
+     *                 reachable.
+     * @param maxLag   how far behind the primary the replica may be.
+     */
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag) {
+        this.jdbcTemplate = new JdbcTemplate(replica);
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, maxLag.toSeconds()));
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * @return whether the replica passed the last check.
+     */
+    @Override
+    public boolean getAsBoolean() {
+        return available;
+    }
+
+    /**
+     * Check the replica and record whether it may be read from.
+     */
+    @Scheduled(fixedDelayString = "${demo.datasource.replica.lag-check-interval:PT5S}")
+    public void check() {
+        try {
+            Double lag = lagQuery == null
+                    ? jdbcTemplate.execute((ConnectionCallback<Double>) connection -> connection.isValid(1) ? 0d : null)
+                    : jdbcTemplate.queryForObject(lagQuery, Double.class);
+            available = lag != null && lag * 1000 <= maxLag.toMillis();
+        } catch (RuntimeException e) {
+            available = false;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ca.dgh.rest.demo.configuration;
+
+import ca.dgh.rest.demo.repository.DTOAwareJpaRepository;
+import ca.dgh.rest.demo.repository.DTOAwareRepository;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Builds every repository on {@link DTOAwareJpaRepository}, which implements the single round trip writes of
+ * {@link DTOAwareRepository}.
+ */
+@Configuration
+@EnableJpaRepositories(basePackageClasses = DTOAwareRepository.class, repositoryBaseClass = DTOAwareJpaRepository.class)
+public class RepositoryConfiguration {
+}
@@ -0,0 +1,12 @@
+package ca.dgh.rest.demo.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the processing of {@link org.springframework.scheduling.annotation.Scheduled} methods.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
@@ -0,0 +1,40 @@
+package ca.dgh.rest.demo.configuration;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+
+/**
+ * Keeps work that no request needs straight away out of the cold start. The beans of the packages listed in
+ * {@code demo.startup.lazy-packages}, such as springdoc's, are only created when they are first used, for instance by
+ * the first request for the API documentation.
+ */
+@Configuration
+public class StartupConfiguration {
+
+    /**
+     * @param packages the packages whose beans are created lazily.
+     * @return a post processor marking the beans declared in those packages as lazy.
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyPackagesPostProcessor(
+            @Value("${demo.startup.lazy-packages:}") String[] packages) {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                // The metadata of a bean declared by a @Bean method is that of the class declaring the method.
+                String className = definition instanceof AnnotatedBeanDefinition annotated
+                        ? annotated.getMetadata().getClassName() : definition.getBeanClassName();
+                if (definition.getRole() == BeanDefinition.ROLE_APPLICATION && className != null
+                        && Arrays.stream(packages).anyMatch(prefix -> className.startsWith(prefix + "."))) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package ca.dgh.rest.demo.controller;
+
+import ca.dgh.rest.demo.configuration.HttpCacheProperties;
+import ca.dgh.rest.demo.model.dto.AbstractDTO;
+import ca.dgh.rest.demo.service.AbstractDTOAwareService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Answers conditional {@code GET} and {@code HEAD} requests made to a {@link Controller} with {@code 304 Not Modified}
+ * when the client already holds the current response, without running the controller or serializing anything.
+ * <p />
+ * Responses for a single object carry an ETag built from the version of that object. Only requests sending
+ * {@code If-None-Match} read the object up front, through the cached {@link AbstractDTOAwareService#getById(UUID)}; an
+ * object that doesn't exist is passed on to the controller so that it is still reported as a {@code 404 Not Found}.
+ * Other requests get their ETag from the object the controller returns, see
+ * {@link ca.dgh.rest.demo.controller.advice.ObjectETagControllerAdvice}, so that each object is only read once. Every
+ * other response carries an ETag built from
+ * {@link AbstractDTOAwareService#getContentVersion()} along with a {@code Last-Modified} date. ETags also depend on the
+ * {@code Accept} header since the same URL can be served as JSON or XML.
+ * <p />
+ * Every response of a controller also gets the {@code Cache-Control} policy configured for its service in
+ * {@link HttpCacheProperties}.
+ */
+public class ConditionalRequestInterceptor implements HandlerInterceptor {
+
+    /**
+     * The name of the path variable holding the id of a single object.
+     */
+    private static final String ID_VARIABLE = "id";
+
+    /**
+     * The request attribute holding the service of a single object request that still needs its ETag, set when the
+     * object isn't read up front.
+     */
+    public static final String SERVICE_ATTRIBUTE = ConditionalRequestInterceptor.class.getName() + ".service";
+
+    /**
+     * The {@code Cache-Control} policy of every service.
+     */
+    private final HttpCacheProperties properties;
+
+    /**
+     * @param properties the {@code Cache-Control} policy of every service.
+     */
+    public ConditionalRequestInterceptor(HttpCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !(handlerMethod.getBean() instanceof Controller<?> controller)
+                || !(HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))) {
+            return true;
+        }
+        AbstractDTOAwareService<?, ?> service = controller.getService();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, properties.cacheControlFor(service.getCacheName()));
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        Optional<UUID> id = getId(request);
+        if (id.isPresent()) {
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+                request.setAttribute(SERVICE_ATTRIBUTE, service);
+                return true;
+            }
+            Optional<String> version = getObjectVersion(service, id.get());
+            return version.isEmpty() || !webRequest.checkNotModified(eTag(version.get(), request));
+        }
+        String version = service.getContentVersion();
+        Instant lastModified = service.getLastModified();
+        if (version == null) {
+            return true;
+        }
+        return lastModified == null ? !webRequest.checkNotModified(eTag(version, request))
+                : !webRequest.checkNotModified(eTag(version, request), lastModified.toEpochMilli());
+    }
+
+    /**
+     * @param request the current request.
+     * @return the id of the object requested, or an empty {@link Optional} if the request isn't for a single object
+     * or its id is malformed, which the controller reports itself.
+     */
+    @SuppressWarnings("unchecked")
+    private static Optional<UUID> getId(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>)
+                request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null || !variables.containsKey(ID_VARIABLE)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(UUID.fromString(variables.get(ID_VARIABLE)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param service the service holding the object.
+     * @param id      the id of the object.
+     * @param <T>     the type of the object.
+     * @return the version of the object, or an empty {@link Optional} if it doesn't exist or has no version.
+     */
+    private static <T extends AbstractDTO> Optional<String> getObjectVersion(AbstractDTOAwareService<?, T> service,
+                                                                             UUID id) {
+        return service.getById(id).map(service::getObjectVersion);
+    }
+
+    /**
+     * Build a strong ETag from the given version and the representation the client asked for.
+     *
+     * @param version the version of the content.
+     * @param request the current request.
+     * @return the quoted ETag.
+     */
+    public static String eTag(String version, HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return "\"" + DigestUtils.md5DigestAsHex((version + "\n" + accept).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
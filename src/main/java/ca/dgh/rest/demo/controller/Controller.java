@@ -1,13 +1,35 @@
 package ca.dgh.rest.demo.controller;
 
 import ca.dgh.rest.demo.exception.DataNotFoundException;
+import ca.dgh.rest.demo.exporter.DataExportFormat;
 import ca.dgh.rest.demo.model.dto.AbstractDTO;
+import ca.dgh.rest.demo.model.dto.BatchDTO;
+import ca.dgh.rest.demo.model.dto.PageDTO;
+import ca.dgh.rest.demo.service.AbstractDTOAwareService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * The endpoints every object type is served with. The objects given to the writes are validated, and since a
+ * {@link org.springframework.validation.annotation.Validated} controller may not change the constraints of the methods
+ * it implements, they are declared here.
+ *
+ * @param <T> the type of the objects served.
+ */
 public interface Controller<T extends AbstractDTO> {
+    /**
+     * Get the service this controller reads from. It is used to answer conditional requests before they reach the
+     * controller, see {@link ConditionalRequestInterceptor}.
+     *
+     * @return the service this controller reads from.
+     */
+    AbstractDTOAwareService<?, T> getService();
+
     /**
      * Get all objects available in the persistence layer.
      *
@@ -15,6 +37,34 @@ public interface Controller<T extends AbstractDTO> {
      */
     List<T> getAll();
 
+    /**
+     * Get a page of objects by page number, ordered by id.
+     *
+     * @param page the number of the page, starting at 0.
+     * @param size the maximum number of objects in the page.
+     * @return the requested page along with the total number of objects and pages.
+     */
+    PageDTO<T> getPage(int page, int size);
+
+    /**
+     * Get a page of objects ordered by id, starting after the page the given continuation token was returned with.
+     * This is the efficient way to go through a whole table.
+     *
+     * @param token the continuation token returned with the previous page, or {@code null} for the first page.
+     * @param size  the maximum number of objects in the page.
+     * @return the requested page along with the continuation token of the next page, if there is one.
+     */
+    PageDTO<T> getPageAfter(String token, int size);
+
+    /**
+     * Export every object in the persistence layer. The export is streamed to the client as it is read, so any number
+     * of objects can be exported.
+     *
+     * @param format the format of the export.
+     * @return a response streaming the export as an attachment.
+     */
+    ResponseEntity<StreamingResponseBody> export(DataExportFormat format);
+
     /**
      * Get an object from the persistence layer that matches the given {@link UUID}.
      *
@@ -23,13 +73,29 @@ public interface Controller<T extends AbstractDTO> {
      */
     Optional<T> getById(UUID id);
 
+    /**
+     * Get the objects that match the given ids in one call, instead of one call per id.
+     *
+     * @param ids the ids of the objects to retrieve from the persistence layer.
+     * @return the objects found along with the ids no object was found for.
+     */
+    BatchDTO<T> getByIds(List<UUID> ids);
+
     /**
      * Create an object in the persistence layer with the information in the given object.
      *
      * @param object object containing the information to be persisted.
      * @return the newly created object.
      */
-    T create(T object);
+    T create(@Valid T object);
+
+    /**
+     * Create several objects in the persistence layer at once.
+     *
+     * @param objects objects containing the information to be persisted.
+     * @return the newly created objects, in the order they were given.
+     */
+    List<T> createAll(List<@Valid T> objects);
 
     /**
      * Update an object in the persistence layer with the information in the given object.
@@ -37,7 +103,7 @@ public interface Controller<T extends AbstractDTO> {
      * @param object object containing the information to be updated in the persistence layer.
      * @return the newly updated object.
      */
-    T update(T object) throws DataNotFoundException;
+    T update(@Valid T object) throws DataNotFoundException;
 
     /**
      * Delete an object in the persistence layer identified by the given {@link UUID}
@@ -0,0 +1,45 @@
+package ca.dgh.rest.demo.controller;
+
+import ca.dgh.rest.demo.exporter.DataExportFormat;
+import ca.dgh.rest.demo.exporter.DataExportWriter;
+import ca.dgh.rest.demo.model.dto.AbstractDTO;
+import ca.dgh.rest.demo.service.AbstractDTOAwareService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Builds the responses of the export endpoints shared by every {@link Controller}.
+ */
+final class DataExports {
+
+    private DataExports() {
+    }
+
+    /**
+     * Build a response that streams every object of the given service to the client as it is read from the
+     * persistence layer. The body is written on an async request thread, after the controller method has returned.
+     *
+     * @param service  the service providing the objects.
+     * @param type     the type of the objects.
+     * @param format   the format to export the objects in.
+     * @param baseName the name of the export file, without its extension.
+     * @param <T>      the type of the objects.
+     * @return a response streaming the export as an attachment.
+     */
+    static <T extends AbstractDTO> ResponseEntity<StreamingResponseBody> export(AbstractDTOAwareService<?, T> service,
+                                                                              Class<T> type, DataExportFormat format,
+                                                                              String baseName) {
+        StreamingResponseBody body = outputStream -> {
+            try (DataExportWriter<T> writer = format.newWriter(outputStream, type)) {
+                service.exportAll(writer);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(baseName + "." + format.getExtension()).build().toString())
+                .body(body);
+    }
+}
@@ -1,16 +1,25 @@
 package ca.dgh.rest.demo.controller;
 
 import ca.dgh.rest.demo.exception.DataNotFoundException;
+import ca.dgh.rest.demo.exporter.DataExportFormat;
+import ca.dgh.rest.demo.model.dto.BatchDTO;
+import ca.dgh.rest.demo.model.dto.PageDTO;
 import ca.dgh.rest.demo.model.dto.ProvinceDTO;
 import ca.dgh.rest.demo.service.ProvinceService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @RestController
+@Validated
 @RequestMapping(value = "/api/province")
 public class ProvinceController implements Controller<ProvinceDTO> {
 
@@ -28,6 +37,14 @@ public class ProvinceController implements Controller<ProvinceDTO> {
         this.provinceService = provinceService;
     }
 
+    /**
+     * @return the service this controller reads from.
+     */
+    @Override
+    public ProvinceService getService() {
+        return provinceService;
+    }
+
     /**
      * Get all objects available in the persistence layer.
      *
@@ -39,6 +56,52 @@ public class ProvinceController implements Controller<ProvinceDTO> {
         return provinceService.getAll();
     }
 
+    /**
+     * Get a page of objects by page number, ordered by id.
+     *
+     * @param page the number of the page, starting at 0.
+     * @param size the maximum number of objects in the page.
+     * @return the requested page along with the total number of objects and pages.
+     */
+    @GetMapping("/page")
+    @Override
+    public PageDTO<ProvinceDTO> getPage(@RequestParam(value = "page", defaultValue = "0") int page,
+                                        @RequestParam(value = "size", defaultValue = "50") int size) {
+        return provinceService.getPage(page, size);
+    }
+
+    /**
+     * Get a page of objects ordered by id, starting after the page the given continuation token was returned with.
+     *
+     * @param token the continuation token returned with the previous page, or nothing for the first page.
+     * @param size  the maximum number of objects in the page.
+     * @return the requested page along with the continuation token of the next page, if there is one.
+     */
+    @GetMapping("/seek")
+    @Override
+    public PageDTO<ProvinceDTO> getPageAfter(@RequestParam(value = "token", required = false) String token,
+                                             @RequestParam(value = "size", defaultValue = "50") int size) {
+        try {
+            return provinceService.getPageAfter(token, size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid continuation token", e);
+        }
+    }
+
+    /**
+     * Export every object in the persistence layer. The export is streamed to the client as it is read, so any number
+     * of objects can be exported.
+     *
+     * @param format the format of the export, newline delimited JSON by default.
+     * @return a response streaming the export as an attachment.
+     */
+    @GetMapping("/export")
+    @Override
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", defaultValue = "NDJSON") DataExportFormat format) {
+        return DataExports.export(provinceService, ProvinceDTO.class, format, "province");
+    }
+
     /**
      * Get an object from the persistence layer that matches the given {@link UUID}.
      *
@@ -51,6 +114,46 @@ public class ProvinceController implements Controller<ProvinceDTO> {
         return provinceService.getById(id);
     }
 
+    /**
+     * Get the objects that match the given ids in one call, instead of one call per id.
+     *
+     * @param ids the ids of the objects to retrieve, for example {@code ?ids=<id>,<id>}.
+     * @return the objects found along with the ids no object was found for.
+     */
+    @GetMapping("/batch")
+    @Override
+    public BatchDTO<ProvinceDTO> getByIds(@RequestParam("ids") List<UUID> ids) {
+        try {
+            return provinceService.getByIds(ids);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get a province by its English or French name, regardless of case and accents.
+     *
+     * @param name the name of the province.
+     * @return the province with the given name.
+     */
+    @GetMapping("/name/{name}")
+    public Optional<ProvinceDTO> getByName(@PathVariable("name") String name) {
+        return provinceService.getProvinceByName(name);
+    }
+
+    /**
+     * Get the provinces whose English or French name starts with the given prefix, for typeahead fields.
+     *
+     * @param prefix the start of the name, regardless of case and accents.
+     * @param limit  the maximum number of provinces to return.
+     * @return the matching provinces ordered by name.
+     */
+    @GetMapping("/typeahead")
+    public List<ProvinceDTO> typeahead(@RequestParam("prefix") String prefix,
+                                       @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return provinceService.getProvincesByNamePrefix(prefix, limit);
+    }
+
     /**
      * Create an object in the persistence layer with the information in the given object.
      *
@@ -63,6 +166,23 @@ public class ProvinceController implements Controller<ProvinceDTO> {
         return provinceService.create(object);
     }
 
+    /**
+     * Create several objects in the persistence layer at once. The inserts are sent in JDBC batches. Every object is
+     * validated, and at most as many objects as fit in a page can be created per call.
+     *
+     * @param objects objects containing the information to be persisted.
+     * @return the newly created objects, in the order they were given.
+     */
+    @PostMapping("/batch")
+    @Override
+    public List<ProvinceDTO> createAll(@RequestBody List<@Valid ProvinceDTO> objects) {
+        try {
+            return provinceService.createAll(objects);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
     /**
      * Update an object in the persistence layer with the information in the given object.
      *
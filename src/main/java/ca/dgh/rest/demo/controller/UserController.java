@@ -1,16 +1,30 @@
 package ca.dgh.rest.demo.controller;
 
 import ca.dgh.rest.demo.exception.DataNotFoundException;
+import ca.dgh.rest.demo.exporter.DataExportFormat;
+import ca.dgh.rest.demo.model.dto.BatchDTO;
+import ca.dgh.rest.demo.model.dto.PageDTO;
 import ca.dgh.rest.demo.model.dto.UserDTO;
+import ca.dgh.rest.demo.model.dto.UserSearchDTO;
 import ca.dgh.rest.demo.service.UserService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Serves {@link UserDTO} objects. Every read accepts {@code ?expand=province} to embed the province of each user, see
+ * {@link ca.dgh.rest.demo.controller.advice.UserExpansionControllerAdvice}.
+ */
 @RestController
+@Validated
 @RequestMapping(value = "/api/user")
 public class UserController implements Controller<UserDTO> {
 
@@ -26,6 +40,14 @@ public class UserController implements Controller<UserDTO> {
         this.userService = userService;
     }
 
+    /**
+     * @return the service this controller reads from.
+     */
+    @Override
+    public UserService getService() {
+        return userService;
+    }
+
     /**
      * Get all objects available in the persistence layer.
      *
@@ -37,6 +59,52 @@ public class UserController implements Controller<UserDTO> {
         return userService.getAll();
     }
 
+    /**
+     * Get a page of objects by page number, ordered by id.
+     *
+     * @param page the number of the page, starting at 0.
+     * @param size the maximum number of objects in the page.
+     * @return the requested page along with the total number of objects and pages.
+     */
+    @GetMapping("/page")
+    @Override
+    public PageDTO<UserDTO> getPage(@RequestParam(value = "page", defaultValue = "0") int page,
+                                    @RequestParam(value = "size", defaultValue = "50") int size) {
+        return userService.getPage(page, size);
+    }
+
+    /**
+     * Get a page of objects ordered by id, starting after the page the given continuation token was returned with.
+     *
+     * @param token the continuation token returned with the previous page, or nothing for the first page.
+     * @param size  the maximum number of objects in the page.
+     * @return the requested page along with the continuation token of the next page, if there is one.
+     */
+    @GetMapping("/seek")
+    @Override
+    public PageDTO<UserDTO> getPageAfter(@RequestParam(value = "token", required = false) String token,
+                                         @RequestParam(value = "size", defaultValue = "50") int size) {
+        try {
+            return userService.getPageAfter(token, size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid continuation token", e);
+        }
+    }
+
+    /**
+     * Export every object in the persistence layer. The export is streamed to the client as it is read, so any number
+     * of objects can be exported.
+     *
+     * @param format the format of the export, newline delimited JSON by default.
+     * @return a response streaming the export as an attachment.
+     */
+    @GetMapping("/export")
+    @Override
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", defaultValue = "NDJSON") DataExportFormat format) {
+        return DataExports.export(userService, UserDTO.class, format, "user");
+    }
+
     /**
      * Get an object from the persistence layer that matches the given {@link UUID}.
      *
@@ -49,6 +117,43 @@ public class UserController implements Controller<UserDTO> {
         return userService.getById(id);
     }
 
+    /**
+     * Get the objects that match the given ids in one call, instead of one call per id.
+     *
+     * @param ids the ids of the objects to retrieve, for example {@code ?ids=<id>,<id>}.
+     * @return the objects found along with the ids no object was found for.
+     */
+    @GetMapping("/batch")
+    @Override
+    public BatchDTO<UserDTO> getByIds(@RequestParam("ids") List<UUID> ids) {
+        try {
+            return userService.getByIds(ids);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Search users by any combination of last name prefix, first name and province, for example
+     * {@code ?lastName=tremb&provinceId=<id>&sort=FIRST_NAME&direction=DESC}. Names match regardless of case and
+     * accents.
+     *
+     * @param criteria the filters and order of the search, bound from the query parameters.
+     * @param page     the number of the page, starting at 0.
+     * @param size     the maximum number of users in the page.
+     * @return the requested page of matching users along with the total number of matching users and pages.
+     */
+    @GetMapping("/search")
+    public PageDTO<UserDTO> search(@ModelAttribute UserSearchDTO criteria,
+                                   @RequestParam(value = "page", defaultValue = "0") int page,
+                                   @RequestParam(value = "size", defaultValue = "50") int size) {
+        try {
+            return userService.search(criteria, page, size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
     /**
      * Create an object in the persistence layer with the information in the given object.
      *
@@ -61,6 +166,23 @@ public class UserController implements Controller<UserDTO> {
         return userService.create(object);
     }
 
+    /**
+     * Create several objects in the persistence layer at once. The inserts are sent in JDBC batches. Every object is
+     * validated, and at most as many objects as fit in a page can be created per call.
+     *
+     * @param objects objects containing the information to be persisted.
+     * @return the newly created objects, in the order they were given.
+     */
+    @PostMapping("/batch")
+    @Override
+    public List<UserDTO> createAll(@RequestBody List<@Valid UserDTO> objects) {
+        try {
+            return userService.createAll(objects);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
     /**
      * Update an object in the persistence layer with the information in the given object.
      *
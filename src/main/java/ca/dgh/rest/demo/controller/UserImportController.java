@@ -0,0 +1,88 @@
+package ca.dgh.rest.demo.controller;
+
+import ca.dgh.rest.demo.importer.DataFileFormat;
+import ca.dgh.rest.demo.model.dto.ImportJobDTO;
+import ca.dgh.rest.demo.service.UserImportJobService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping(value = "/api/user/import")
+public class UserImportController {
+
+    /**
+     * The number of seconds clients are asked to wait before submitting again when too many imports are waiting.
+     */
+    private static final String RETRY_AFTER_SECONDS = "30";
+
+    /**
+     * The service running the imports in the background.
+     */
+    private final UserImportJobService userImportJobService;
+
+    /**
+     * @param userImportJobService The service used to import {@link ca.dgh.rest.demo.model.dto.DataFileDTO} rows as
+     *                             users in the background.
+     */
+    public UserImportController(UserImportJobService userImportJobService) {
+        this.userImportJobService = userImportJobService;
+    }
+
+    /**
+     * Queue the import of every row of the uploaded file as a new user and return straight away. Rows that are invalid
+     * are skipped and reported in the state of the import, which can be followed at the returned location.
+     *
+     * @param file   an XLSX, CSV or XML file with {@code firstName}, {@code lastName} and {@code province} columns.
+     * @param format the format of the file. When omitted it is worked out from the extension of the file name.
+     * @return {@code 202 Accepted} with the state of the queued import, or {@code 429 Too Many Requests} when too many
+     * imports are already waiting.
+     * @throws IOException thrown when the file can't be read.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDTO> importUsers(@RequestPart("file") MultipartFile file,
+                                                    @RequestParam(value = "format", required = false)
+                                                    DataFileFormat format) throws IOException {
+        DataFileFormat fileFormat = format != null ? format : DataFileFormat.fromFileName(file.getOriginalFilename())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "The file format could not be worked out from the file name, please provide a format"));
+        try {
+            ImportJobDTO job = userImportJobService.submit(file, file.getOriginalFilename(), fileFormat);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentRequestUri().path("/{id}")
+                            .buildAndExpand(job.getId()).toUri())
+                    .body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).build();
+        }
+    }
+
+    /**
+     * Get the state of an import: where it is at, the rows read, imported and rejected so far, the reason each row was
+     * rejected and the number of rows read per second.
+     *
+     * @param id the id returned when the file was uploaded.
+     * @return the state of the import, or a 404 if there is no such import or it finished too long ago.
+     */
+    @GetMapping("/{id}")
+    public Optional<ImportJobDTO> getJob(@PathVariable("id") UUID id) {
+        return userImportJobService.getJob(id);
+    }
+}
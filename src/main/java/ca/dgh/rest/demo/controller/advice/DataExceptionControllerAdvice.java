@@ -0,0 +1,43 @@
+package ca.dgh.rest.demo.controller.advice;
+
+import ca.dgh.rest.demo.exception.DataNotFoundException;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Turns the exceptions thrown by writes into the matching responses: a {@code 400 Bad Request} when an object given
+ * to a {@link org.springframework.validation.annotation.Validated} controller is invalid, a {@code 404 Not Found} when
+ * the object doesn't exist and a {@code 409 Conflict} when it has been changed since the caller read it.
+ */
+@RestControllerAdvice
+public class DataExceptionControllerAdvice {
+
+    /**
+     * @param e the constraints the objects given to the controller violate.
+     * @return a {@code 400 Bad Request} response listing the violations.
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<String> handleConstraintViolation(ConstraintViolationException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    /**
+     * @return a {@code 404 Not Found} response.
+     */
+    @ExceptionHandler(DataNotFoundException.class)
+    public ResponseEntity<String> handleDataNotFound() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(HttpStatus.NOT_FOUND.toString());
+    }
+
+    /**
+     * @return a {@code 409 Conflict} response, telling the caller to read the object again before updating it.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(HttpStatus.CONFLICT.toString());
+    }
+}
@@ -0,0 +1,75 @@
+package ca.dgh.rest.demo.controller.advice;
+
+import ca.dgh.rest.demo.controller.ConditionalRequestInterceptor;
+import ca.dgh.rest.demo.model.dto.AbstractDTO;
+import ca.dgh.rest.demo.service.AbstractDTOAwareService;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Optional;
+
+/**
+ * Sets the ETag of a single object response from the object the controller returns, for the requests the
+ * {@link ConditionalRequestInterceptor} let through without reading the object up front. This way an unconditional
+ * request reads its object once, and is counted once by the cache statistics and metrics.
+ */
+@RestControllerAdvice
+public class ObjectETagControllerAdvice implements ResponseBodyAdvice<Object> {
+
+    /**
+     * This advice applies to the controller methods returning a single object.
+     *
+     * @param returnType    the return type.
+     * @param converterType the selected converter type.
+     * @return true if the controller method returns an {@link Optional} or an {@link AbstractDTO}.
+     */
+    @Override
+    public boolean supports(MethodParameter returnType, Class converterType) {
+        return returnType.getParameterType().equals(Optional.class)
+                || AbstractDTO.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    /**
+     * Set the ETag of the response if the {@link ConditionalRequestInterceptor} left it to this advice.
+     *
+     * @param body                  the body to be written
+     * @param returnType            the return type of the controller method
+     * @param selectedContentType   the content type selected through content negotiation
+     * @param selectedConverterType the converter type selected to write to the response
+     * @param request               the current request
+     * @param response              the current response
+     * @return the body that was passed in.
+     */
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+        Object object = body instanceof Optional<?> optional ? optional.orElse(null) : body;
+        if (request instanceof ServletServerHttpRequest servletRequest && object instanceof AbstractDTO dto
+                && servletRequest.getServletRequest().getAttribute(ConditionalRequestInterceptor.SERVICE_ATTRIBUTE)
+                instanceof AbstractDTOAwareService<?, ?> service) {
+            String version = getObjectVersion(service, dto);
+            if (version != null) {
+                response.getHeaders().setETag(
+                        ConditionalRequestInterceptor.eTag(version, servletRequest.getServletRequest()));
+            }
+        }
+        return body;
+    }
+
+    /**
+     * @param service the service holding the object.
+     * @param object  the object returned by the controller.
+     * @param <T>     the type of the object.
+     * @return the version of the object, or {@code null} if it has no version.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends AbstractDTO> String getObjectVersion(AbstractDTOAwareService<?, T> service,
+                                                                   AbstractDTO object) {
+        return service.getObjectVersion((T) object);
+    }
+}
@@ -0,0 +1,124 @@
+package ca.dgh.rest.demo.controller.advice;
+
+import ca.dgh.rest.demo.controller.UserController;
+import ca.dgh.rest.demo.model.dto.BatchDTO;
+import ca.dgh.rest.demo.model.dto.PageDTO;
+import ca.dgh.rest.demo.model.dto.UserDTO;
+import ca.dgh.rest.demo.service.UserService;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Expands the users returned by the {@link UserController} with their province when the client asks for it with
+ * {@code ?expand=province}. This works on every read of the controller, whether it returns a single user, a list, a
+ * page or a batch, and leaves the responses unchanged otherwise.
+ * <p />
+ * Provinces are resolved by {@link UserService#withProvinces(List)} from the province lookup table, never by loading
+ * the province of each user.
+ */
+@RestControllerAdvice(assignableTypes = UserController.class)
+public class UserExpansionControllerAdvice implements ResponseBodyAdvice<Object> {
+
+    /**
+     * The request parameter listing the relations to expand, separated by commas.
+     */
+    public static final String EXPAND_PARAMETER = "expand";
+
+    /**
+     * The value of {@link #EXPAND_PARAMETER} expanding the province of each user.
+     */
+    public static final String PROVINCE = "province";
+
+    /**
+     * Expands the users.
+     */
+    private final UserService userService;
+
+    /**
+     * @param userService expands the users.
+     */
+    public UserExpansionControllerAdvice(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class converterType) {
+        return true;
+    }
+
+    /**
+     * Expand the users in the body if the request asks for it.
+     *
+     * @param body                  the body to be written
+     * @param returnType            the return type of the controller method
+     * @param selectedContentType   the content type selected through content negotiation
+     * @param selectedConverterType the converter type selected to write to the response
+     * @param request               the current request
+     * @param response              the current response
+     * @return the body with its users expanded, or the body that was passed in.
+     */
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !expandsProvince(servletRequest.getServletRequest().getParameterValues(EXPAND_PARAMETER))) {
+            return body;
+        }
+        return expand(body);
+    }
+
+    /**
+     * @param values the values of the {@link #EXPAND_PARAMETER} parameter, or {@code null} if there is none.
+     * @return whether the province has to be expanded.
+     */
+    static boolean expandsProvince(String[] values) {
+        return values != null && Arrays.stream(values)
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .anyMatch(value -> PROVINCE.equalsIgnoreCase(value.trim()));
+    }
+
+    /**
+     * Expand the users in a body. Bodies are copied rather than changed, since they may come from a cache.
+     *
+     * @param body the body returned by the controller.
+     * @return the body with its users expanded.
+     */
+    @SuppressWarnings("unchecked")
+    private Object expand(Object body) {
+        if (body instanceof UserDTO user) {
+            return userService.withProvinces(List.of(user)).get(0);
+        }
+        if (body instanceof Optional<?> optional && optional.orElse(null) instanceof UserDTO user) {
+            return Optional.of(userService.withProvinces(List.of(user)).get(0));
+        }
+        if (body instanceof List<?> list && list.stream().allMatch(UserDTO.class::isInstance)) {
+            return userService.withProvinces((List<UserDTO>) list);
+        }
+        if (body instanceof PageDTO<?> page && page.getContent().stream().allMatch(UserDTO.class::isInstance)) {
+            PageDTO<UserDTO> expandedPage = new PageDTO<>();
+            expandedPage.setContent(userService.withProvinces((List<UserDTO>) page.getContent()));
+            expandedPage.setSize(page.getSize());
+            expandedPage.setPage(page.getPage());
+            expandedPage.setTotalElements(page.getTotalElements());
+            expandedPage.setTotalPages(page.getTotalPages());
+            expandedPage.setNextToken(page.getNextToken());
+            return expandedPage;
+        }
+        if (body instanceof BatchDTO<?> batch && batch.getContent().stream().allMatch(UserDTO.class::isInstance)) {
+            BatchDTO<UserDTO> expandedBatch = new BatchDTO<>();
+            expandedBatch.setContent(userService.withProvinces((List<UserDTO>) batch.getContent()));
+            expandedBatch.setMissingIds(batch.getMissingIds());
+            return expandedBatch;
+        }
+        return body;
+    }
+}
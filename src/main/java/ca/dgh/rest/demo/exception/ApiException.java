@@ -1,5 +1,6 @@
 package ca.dgh.rest.demo.exception;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -9,6 +10,7 @@ import java.util.Optional;
 @AllArgsConstructor
 @Getter
 @Setter
+@JsonIgnoreProperties({"cause", "stackTrace", "localizedMessage", "suppressed"})
 public class ApiException extends Exception {
     String message;
 
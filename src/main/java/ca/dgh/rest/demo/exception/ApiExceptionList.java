@@ -1,11 +1,13 @@
 package ca.dgh.rest.demo.exception;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
 import java.util.List;
 
+@JsonIgnoreProperties({"cause", "stackTrace", "localizedMessage", "suppressed"})
 public class ApiExceptionList extends Throwable {
     @Getter
     @Setter
@@ -0,0 +1,47 @@
+package ca.dgh.rest.demo.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes comma separated values with a header line holding the property names of the exported type.
+ *
+ * @param <T> the type of the exported objects.
+ */
+public class CsvDataExportWriter<T> implements DataExportWriter<T> {
+
+    /**
+     * The mapper writing every line. It is thread safe and can be shared.
+     */
+    static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build();
+
+    /**
+     * Writes the objects, one per line.
+     */
+    private final SequenceWriter sequenceWriter;
+
+    /**
+     * @param outputStream the stream to write the export to.
+     * @param type         the type of the exported objects, used to work out the columns.
+     * @throws IOException when the export can't be started.
+     */
+    public CsvDataExportWriter(OutputStream outputStream, Class<T> type) throws IOException {
+        this.sequenceWriter = CSV_MAPPER.writer(CSV_MAPPER.schemaFor(type).withHeader()).writeValues(outputStream);
+    }
+
+    @Override
+    public void write(T object) throws IOException {
+        sequenceWriter.write(object);
+    }
+
+    @Override
+    public void close() throws IOException {
+        sequenceWriter.close();
+    }
+}
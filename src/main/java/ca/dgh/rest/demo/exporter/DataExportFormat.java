@@ -0,0 +1,70 @@
+package ca.dgh.rest.demo.exporter;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The formats a table can be exported in.
+ */
+public enum DataExportFormat {
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        public <T> DataExportWriter<T> newWriter(OutputStream outputStream, Class<T> type) throws IOException {
+            return new NdjsonDataExportWriter<>(outputStream);
+        }
+    },
+    CSV("text/csv", "csv") {
+        @Override
+        public <T> DataExportWriter<T> newWriter(OutputStream outputStream, Class<T> type) throws IOException {
+            return new CsvDataExportWriter<>(outputStream, type);
+        }
+    },
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx") {
+        @Override
+        public <T> DataExportWriter<T> newWriter(OutputStream outputStream, Class<T> type) {
+            return new XlsxDataExportWriter<>(outputStream, type);
+        }
+    };
+
+    /**
+     * The content type of an export in this format.
+     */
+    private final MediaType mediaType;
+
+    /**
+     * The extension of the name of an export file in this format.
+     */
+    private final String extension;
+
+    DataExportFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    /**
+     * @return the content type of an export in this format.
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return the extension of the name of an export file in this format.
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Create a writer for an export in this format.
+     *
+     * @param outputStream the stream to write the export to.
+     * @param type         the type of the exported objects.
+     * @param <T>          the type of the exported objects.
+     * @return a new writer.
+     * @throws IOException when the export can't be started.
+     */
+    public abstract <T> DataExportWriter<T> newWriter(OutputStream outputStream, Class<T> type) throws IOException;
+}
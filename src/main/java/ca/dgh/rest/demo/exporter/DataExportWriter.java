@@ -0,0 +1,29 @@
+package ca.dgh.rest.demo.exporter;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes objects one at a time to an export file. Implementations must not hold on to the objects they are given, so
+ * that tables of any size can be exported in constant memory.
+ *
+ * @param <T> the type of the exported objects.
+ */
+public interface DataExportWriter<T> extends Closeable {
+
+    /**
+     * Write a single object to the export.
+     *
+     * @param object the object to write.
+     * @throws IOException when the export can't be written, for instance because the client went away.
+     */
+    void write(T object) throws IOException;
+
+    /**
+     * Finish the export and flush it to the output stream. The output stream itself is left open.
+     *
+     * @throws IOException when the export can't be written.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,47 @@
+package ca.dgh.rest.demo.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes newline delimited JSON, one object per line.
+ *
+ * @param <T> the type of the exported objects.
+ */
+public class NdjsonDataExportWriter<T> implements DataExportWriter<T> {
+
+    /**
+     * The mapper writing every line. It is thread safe and can be shared.
+     */
+    private static final ObjectMapper JSON_MAPPER = JsonMapper.builder()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build();
+
+    /**
+     * Writes the objects, separated by new lines.
+     */
+    private final SequenceWriter sequenceWriter;
+
+    /**
+     * @param outputStream the stream to write the export to.
+     * @throws IOException when the export can't be started.
+     */
+    public NdjsonDataExportWriter(OutputStream outputStream) throws IOException {
+        this.sequenceWriter = JSON_MAPPER.writer().withRootValueSeparator("\n").writeValues(outputStream);
+    }
+
+    @Override
+    public void write(T object) throws IOException {
+        sequenceWriter.write(object);
+    }
+
+    @Override
+    public void close() throws IOException {
+        sequenceWriter.close();
+    }
+}
@@ -0,0 +1,92 @@
+package ca.dgh.rest.demo.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes an Excel workbook with a header row holding the property names of the exported type.
+ * <p />
+ * The workbook is built with POI's streaming {@link SXSSFWorkbook}, which only keeps a window of rows in memory and
+ * flushes the rest to a temporary file. The file is zipped into the output stream when the export is closed.
+ *
+ * @param <T> the type of the exported objects.
+ */
+public class XlsxDataExportWriter<T> implements DataExportWriter<T> {
+
+    /**
+     * The number of rows kept in memory before they are flushed to the temporary file.
+     */
+    private static final int ROW_ACCESS_WINDOW = 100;
+
+    /**
+     * Converts each object into a map of its properties. It is thread safe and can be shared.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * The stream the workbook is written to once complete.
+     */
+    private final OutputStream outputStream;
+
+    /**
+     * The workbook being written.
+     */
+    private final SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+
+    /**
+     * The only sheet of the workbook.
+     */
+    private final Sheet sheet = workbook.createSheet();
+
+    /**
+     * The property names of the exported type, in column order.
+     */
+    private final List<String> columns = new ArrayList<>();
+
+    /**
+     * @param outputStream the stream to write the export to.
+     * @param type         the type of the exported objects, used to work out the columns.
+     */
+    public XlsxDataExportWriter(OutputStream outputStream, Class<T> type) {
+        this.outputStream = outputStream;
+        for (CsvSchema.Column column : CsvDataExportWriter.CSV_MAPPER.schemaFor(type)) {
+            columns.add(column.getName());
+        }
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < columns.size(); i++) {
+            header.createCell(i).setCellValue(columns.get(i));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void write(T object) {
+        Map<String, Object> properties = OBJECT_MAPPER.convertValue(object, Map.class);
+        Row row = sheet.createRow(sheet.getLastRowNum() + 1);
+        for (int i = 0; i < columns.size(); i++) {
+            Object value = properties.get(columns.get(i));
+            if (value != null) {
+                row.createCell(i).setCellValue(value.toString());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            workbook.write(outputStream);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ca.dgh.rest.demo.importer;
+
+import ca.dgh.rest.demo.model.dto.DataFileDTO;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Reads comma separated files whose first line holds the column headers.
+ */
+public class CsvDataFileReader implements DataFileReader {
+
+    /**
+     * The mapper parsing the file. It is thread safe and can be shared.
+     */
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    @Override
+    public void read(InputStream inputStream, DataFileRowHandler handler) throws IOException {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, String>> rows = CSV_MAPPER.readerForMapOf(String.class).with(schema)
+                .readValues(inputStream)) {
+            long rowNumber = 0;
+            while (rows.hasNextValue()) {
+                DataFileDTO row = new DataFileDTO();
+                rows.nextValue().forEach((header, value) -> DataFileColumns.set(row, header, value));
+                handler.row(++rowNumber, row);
+            }
+        }
+    }
+}
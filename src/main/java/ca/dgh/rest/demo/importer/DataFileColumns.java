@@ -0,0 +1,39 @@
+package ca.dgh.rest.demo.importer;
+
+import ca.dgh.rest.demo.model.dto.DataFileDTO;
+
+import java.util.Locale;
+
+/**
+ * Maps the column headers of a data file onto the fields of a {@link DataFileDTO}. Headers are matched regardless of
+ * case, spaces and punctuation, so "First Name", "first_name" and "firstName" are all the same column.
+ */
+final class DataFileColumns {
+
+    /**
+     * All methods in this class should be statically accessed. So we make it impossible to instantiate this class.
+     */
+    private DataFileColumns() {
+    }
+
+    /**
+     * Set the field of the row that matches the given header. Unknown headers are ignored.
+     *
+     * @param row    the row to populate.
+     * @param header the header of the column.
+     * @param value  the value of the cell.
+     */
+    static void set(DataFileDTO row, String header, String value) {
+        if (header == null) {
+            return;
+        }
+        switch (header.replaceAll("[^A-Za-z]", "").toLowerCase(Locale.ROOT)) {
+            case "firstname" -> row.setFirstName(value);
+            case "lastname" -> row.setLastName(value);
+            case "province" -> row.setProvince(value);
+            default -> {
+                // Columns that aren't part of a DataFileDTO are ignored.
+            }
+        }
+    }
+}
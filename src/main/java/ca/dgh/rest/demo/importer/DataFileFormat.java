@@ -0,0 +1,49 @@
+package ca.dgh.rest.demo.importer;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The formats a data file can be uploaded in.
+ */
+public enum DataFileFormat {
+    XLSX(XlsxDataFileReader::new),
+    CSV(CsvDataFileReader::new),
+    XML(XmlDataFileReader::new);
+
+    /**
+     * Creates the reader for this format.
+     */
+    private final Supplier<DataFileReader> readerFactory;
+
+    DataFileFormat(Supplier<DataFileReader> readerFactory) {
+        this.readerFactory = readerFactory;
+    }
+
+    /**
+     * @return a new reader for files of this format.
+     */
+    public DataFileReader newReader() {
+        return readerFactory.get();
+    }
+
+    /**
+     * Work out the format of a file from the extension of its name.
+     *
+     * @param fileName the name of the file.
+     * @return the format of the file, or an empty {@link Optional} if the extension is not recognised.
+     */
+    public static Optional<DataFileFormat> fromFileName(String fileName) {
+        if (fileName == null || fileName.lastIndexOf('.') < 0) {
+            return Optional.empty();
+        }
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toUpperCase(Locale.ROOT);
+        for (DataFileFormat format : values()) {
+            if (format.name().equals(extension)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,20 @@
+package ca.dgh.rest.demo.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streams the rows of a data file to a {@link DataFileRowHandler}. Implementations must not hold more than a single
+ * row in memory, so that files of any size can be read.
+ */
+public interface DataFileReader {
+
+    /**
+     * Read every row of the given file.
+     *
+     * @param inputStream the content of the file. This is not closed by the reader.
+     * @param handler     the handler receiving each row.
+     * @throws IOException when the file can't be read or is malformed.
+     */
+    void read(InputStream inputStream, DataFileRowHandler handler) throws IOException;
+}
@@ -0,0 +1,18 @@
+package ca.dgh.rest.demo.importer;
+
+import ca.dgh.rest.demo.model.dto.DataFileDTO;
+
+/**
+ * Receives the rows of a data file one at a time as a {@link DataFileReader} streams through it.
+ */
+@FunctionalInterface
+public interface DataFileRowHandler {
+
+    /**
+     * Handle a single row of the file.
+     *
+     * @param rowNumber the number of the row in the file, starting at 1 for the first data row.
+     * @param row       the values of the row.
+     */
+    void row(long rowNumber, DataFileDTO row);
+}
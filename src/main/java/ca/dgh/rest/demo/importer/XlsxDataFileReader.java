@@ -0,0 +1,136 @@
+package ca.dgh.rest.demo.importer;
+
+import ca.dgh.rest.demo.model.dto.DataFileDTO;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Reads the first sheet of an Excel workbook whose first row holds the column headers.
+ * <p />
+ * This uses POI's SAX based event model rather than {@code XSSFWorkbook}, which would build the whole workbook in
+ * memory. The upload is first copied to a temporary file because opening a package from a stream also buffers the
+ * whole archive in memory.
+ */
+public class XlsxDataFileReader implements DataFileReader {
+
+    @Override
+    public void read(InputStream inputStream, DataFileRowHandler handler) throws IOException {
+        Path workbookFile = Files.createTempFile("import-", ".xlsx");
+        try {
+            Files.copy(inputStream, workbookFile, StandardCopyOption.REPLACE_EXISTING);
+            OPCPackage workbook = OPCPackage.open(workbookFile.toFile(), PackageAccess.READ);
+            try {
+                readFirstSheet(workbook, handler);
+            } finally {
+                // A read only package is closed by reverting it, close() would try to save it.
+                workbook.revert();
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("The Excel file could not be read: " + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(workbookFile);
+        }
+    }
+
+    /**
+     * Stream the rows of the first sheet of the given workbook to the handler.
+     *
+     * @param workbook the workbook to read.
+     * @param handler  the handler receiving each row.
+     */
+    private void readFirstSheet(OPCPackage workbook, DataFileRowHandler handler)
+            throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        XSSFReader reader = new XSSFReader(workbook);
+        Iterator<InputStream> sheets = reader.getSheetsData();
+        if (!sheets.hasNext()) {
+            return;
+        }
+        ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(workbook);
+        try (InputStream sheet = sheets.next()) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null, sharedStrings,
+                    new RowCollector(handler), new DataFormatter(), false));
+            parser.parse(new InputSource(sheet));
+        }
+    }
+
+    /**
+     * Collects the cells of each row into a {@link DataFileDTO}, using the first row as headers.
+     */
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        /**
+         * The handler receiving each completed row.
+         */
+        private final DataFileRowHandler handler;
+
+        /**
+         * The headers of the sheet keyed by column index.
+         */
+        private final Map<Integer, String> headers = new HashMap<>();
+
+        /**
+         * The row currently being read, or {@code null} while reading the header row.
+         */
+        private DataFileDTO currentRow;
+
+        /**
+         * The number of data rows read so far.
+         */
+        private long rowNumber;
+
+        /**
+         * Whether the header row has been read.
+         */
+        private boolean headerRead;
+
+        RowCollector(DataFileRowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            currentRow = headerRead ? new DataFileDTO() : null;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!headerRead) {
+                headerRead = true;
+            } else {
+                handler.row(++rowNumber, currentRow);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = new CellReference(cellReference).getCol();
+            if (currentRow == null) {
+                headers.put(column, formattedValue);
+            } else {
+                DataFileColumns.set(currentRow, headers.get(column), formattedValue);
+            }
+        }
+    }
+}
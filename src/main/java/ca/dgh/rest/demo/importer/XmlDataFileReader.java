@@ -0,0 +1,65 @@
+package ca.dgh.rest.demo.importer;
+
+import ca.dgh.rest.demo.model.dto.DataFileDTO;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads XML files where every child of the root element is a row, for example:
+ * <pre>
+ * &lt;users&gt;
+ *     &lt;user&gt;&lt;firstName&gt;John&lt;/firstName&gt;&lt;lastName&gt;Doe&lt;/lastName&gt;&lt;province&gt;NS&lt;/province&gt;&lt;/user&gt;
+ * &lt;/users&gt;
+ * </pre>
+ * The file is read with StAX and each row is bound on its own, so the document is never held in memory.
+ */
+public class XmlDataFileReader implements DataFileReader {
+
+    /**
+     * The factory creating the StAX readers. Document type definitions are disabled to prevent XXE attacks.
+     */
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    /**
+     * The mapper binding each row. It is thread safe and can be shared.
+     */
+    private static final XmlMapper XML_MAPPER = XmlMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Override
+    public void read(InputStream inputStream, DataFileRowHandler handler) throws IOException {
+        try {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+            try {
+                // Move onto the root element, then onto each of its children in turn.
+                reader.nextTag();
+                long rowNumber = 0;
+                while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    handler.row(++rowNumber, XML_MAPPER.readValue(reader, DataFileDTO.class));
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("The XML file could not be read: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return a StAX input factory that doesn't resolve DTDs or external entities.
+     */
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
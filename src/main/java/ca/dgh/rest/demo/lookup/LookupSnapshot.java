@@ -0,0 +1,135 @@
+package ca.dgh.rest.demo.lookup;
+
+import ca.dgh.rest.demo.model.dto.LookupDTO;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * An immutable copy of a lookup table, indexed by id, code, and the search keys of the English and French names. A snapshot never changes
+ * once built, so it can be read by any number of threads without locking.
+ * <p />
+ * The objects held by a snapshot are shared with every caller and must not be modified.
+ *
+ * @param <T> the type of lookup held by this snapshot.
+ */
+public final class LookupSnapshot<T extends LookupDTO> {
+
+    /**
+     * Every row of the table, in the order they were loaded.
+     */
+    private final List<T> all;
+
+    /**
+     * The rows of the table keyed by id.
+     */
+    private final Map<UUID, T> byId;
+
+    /**
+     * The rows of the table keyed by upper case code.
+     */
+    private final Map<String, T> byCode;
+
+    /**
+     * The rows of the table keyed by the search key of their English and French name. See {@link SearchKeyNormalizer}.
+     */
+    private final Map<String, T> byName;
+
+    /**
+     * The same keys as {@link #byName} in sorted order, which makes prefix searches a range scan.
+     */
+    private final NavigableMap<String, T> byNamePrefix;
+
+    /**
+     * Build a snapshot of the given rows.
+     *
+     * @param rows every row of the table.
+     */
+    LookupSnapshot(Collection<T> rows) {
+        Map<UUID, T> ids = new HashMap<>();
+        Map<String, T> codes = new HashMap<>();
+        Map<String, T> names = new HashMap<>();
+        for (T row : rows) {
+            ids.put(row.getId(), row);
+            if (row.getCode() != null) {
+                codes.put(row.getCode().toUpperCase(Locale.ROOT), row);
+            }
+            if (row.getNameEn() != null) {
+                names.putIfAbsent(SearchKeyNormalizer.normalize(row.getNameEn()), row);
+            }
+            if (row.getNameFr() != null) {
+                names.putIfAbsent(SearchKeyNormalizer.normalize(row.getNameFr()), row);
+            }
+        }
+        this.all = List.copyOf(rows);
+        this.byId = Map.copyOf(ids);
+        this.byCode = Map.copyOf(codes);
+        this.byName = Map.copyOf(names);
+        this.byNamePrefix = Collections.unmodifiableNavigableMap(new TreeMap<>(names));
+    }
+
+    /**
+     * @return every row of the table.
+     */
+    public List<T> getAll() {
+        return all;
+    }
+
+    /**
+     * @param id the id of the row.
+     * @return the row with the given id.
+     */
+    public Optional<T> getById(UUID id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    /**
+     * @param code the code of the row, in any case.
+     * @return the row with the given code.
+     */
+    public Optional<T> getByCode(String code) {
+        return code == null ? Optional.empty() : Optional.ofNullable(byCode.get(code.toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * @param name the English or French name of the row, regardless of case and accents.
+     * @return the row with the given name.
+     */
+    public Optional<T> getByName(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(byName.get(SearchKeyNormalizer.normalize(name)));
+    }
+
+    /**
+     * Find the rows with an English or French name starting with the given prefix, regardless of case and accents.
+     * This is meant for typeahead searches.
+     *
+     * @param prefix the start of the name.
+     * @param limit  the maximum number of rows to return.
+     * @return the matching rows ordered by name, each row at most once.
+     */
+    public List<T> getByNamePrefix(String prefix, int limit) {
+        String key = SearchKeyNormalizer.normalize(prefix);
+        if (key == null || key.isEmpty()) {
+            return List.of();
+        }
+        return byNamePrefix.subMap(key, true, key + Character.MAX_VALUE, false).values().stream()
+                .distinct()
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * @return the number of rows in this snapshot.
+     */
+    public int size() {
+        return all.size();
+    }
+}
@@ -0,0 +1,103 @@
+package ca.dgh.rest.demo.lookup;
+
+import ca.dgh.rest.demo.model.dto.LookupDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * An in-memory copy of a small, rarely changing table such as {@code LK_PROVINCE}. The whole table is held in an
+ * immutable {@link LookupSnapshot}. Reads go to the current snapshot without locking; {@link #reload()} builds a new
+ * snapshot and swaps it in atomically, so readers see either the old or the new table but never a mix of both.
+ *
+ * @param <T> the type of lookup held by this table.
+ */
+public class LookupTable<T extends LookupDTO> {
+
+    /**
+     * Loads every row of the table from the persistence layer.
+     */
+    private final Supplier<Collection<T>> loader;
+
+    /**
+     * The current snapshot, or {@code null} if the table hasn't been loaded yet.
+     */
+    private volatile LookupSnapshot<T> snapshot;
+
+    /**
+     * @param loader loads every row of the table from the persistence layer.
+     */
+    public LookupTable(Supplier<Collection<T>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Load the table again and replace the current snapshot. This should be called after every write to the table.
+     *
+     * @return the new snapshot.
+     */
+    public synchronized LookupSnapshot<T> reload() {
+        LookupSnapshot<T> newSnapshot = new LookupSnapshot<>(loader.get());
+        snapshot = newSnapshot;
+        return newSnapshot;
+    }
+
+    /**
+     * @return the current snapshot, loading the table first if that hasn't happened yet.
+     */
+    public LookupSnapshot<T> getSnapshot() {
+        LookupSnapshot<T> current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = reload();
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return every row of the table.
+     */
+    public List<T> getAll() {
+        return getSnapshot().getAll();
+    }
+
+    /**
+     * @param id the id of the row.
+     * @return the row with the given id.
+     */
+    public Optional<T> getById(UUID id) {
+        return getSnapshot().getById(id);
+    }
+
+    /**
+     * @param code the code of the row, in any case.
+     * @return the row with the given code.
+     */
+    public Optional<T> getByCode(String code) {
+        return getSnapshot().getByCode(code);
+    }
+
+    /**
+     * @param name the English or French name of the row, regardless of case and accents.
+     * @return the row with the given name.
+     */
+    public Optional<T> getByName(String name) {
+        return getSnapshot().getByName(name);
+    }
+
+    /**
+     * @param prefix the start of the English or French name, regardless of case and accents.
+     * @param limit  the maximum number of rows to return.
+     * @return the matching rows ordered by name.
+     */
+    public List<T> getByNamePrefix(String prefix, int limit) {
+        return getSnapshot().getByNamePrefix(prefix, limit);
+    }
+}
@@ -0,0 +1,41 @@
+package ca.dgh.rest.demo.lookup;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Turns names into search keys that match regardless of case, accents and surrounding or repeated white space, so
+ * that "Quebec", "québec " and "QUÉBEC" all produce {@code quebec}.
+ */
+public final class SearchKeyNormalizer {
+
+    /**
+     * Matches the combining marks left behind once accented characters have been decomposed.
+     */
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Matches runs of white space.
+     */
+    private static final Pattern WHITE_SPACE = Pattern.compile("\\s+");
+
+    /**
+     * All methods in this class should be statically accessed. So we make it impossible to instantiate this class.
+     */
+    private SearchKeyNormalizer() {
+    }
+
+    /**
+     * @param name the name to normalize.
+     * @return the search key of the given name, or {@code null} if the name is {@code null}.
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(name.trim(), Normalizer.Form.NFD);
+        String withoutAccents = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return WHITE_SPACE.matcher(withoutAccents).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,27 @@
+package ca.dgh.rest.demo.mapper;
+
+import ca.dgh.rest.demo.model.AbstractEntity;
+import ca.dgh.rest.demo.model.dto.AbstractDTO;
+
+/**
+ * Converts between an entity and its data transfer object. Every
+ * {@link ca.dgh.rest.demo.service.AbstractDTOAwareService} maps through one of these, so the implementation can be
+ * swapped without touching the services.
+ *
+ * @param <S> the entity type.
+ * @param <T> the data transfer object type.
+ */
+public interface DTOMapper<S extends AbstractEntity, T extends AbstractDTO> {
+
+    /**
+     * @param entity the entity to convert.
+     * @return a new data transfer object holding the values of the entity.
+     */
+    T toDTO(S entity);
+
+    /**
+     * @param dto the data transfer object to convert.
+     * @return a new entity holding the values of the data transfer object.
+     */
+    S toEntity(T dto);
+}
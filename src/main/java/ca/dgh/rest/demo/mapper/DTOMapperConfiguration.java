@@ -0,0 +1,32 @@
+package ca.dgh.rest.demo.mapper;
+
+import org.mapstruct.factory.Mappers;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the mappers generated at compile time. Services pick these up in place of {@link org.modelmapper.ModelMapper}
+ * for the entities they cover. Setting {@code demo.mapper.implementation} to {@code modelmapper} leaves them out, so
+ * every service falls back to ModelMapper.
+ */
+@Configuration
+@ConditionalOnProperty(name = "demo.mapper.implementation", havingValue = "generated", matchIfMissing = true)
+public class DTOMapperConfiguration {
+
+    /**
+     * @return the generated mapper between users and their DTO.
+     */
+    @Bean
+    public UserMapper userMapper() {
+        return Mappers.getMapper(UserMapper.class);
+    }
+
+    /**
+     * @return the generated mapper between provinces and their DTO.
+     */
+    @Bean
+    public ProvinceMapper provinceMapper() {
+        return Mappers.getMapper(ProvinceMapper.class);
+    }
+}
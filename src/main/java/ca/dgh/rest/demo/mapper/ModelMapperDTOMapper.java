@@ -0,0 +1,51 @@
+package ca.dgh.rest.demo.mapper;
+
+import ca.dgh.rest.demo.model.AbstractEntity;
+import ca.dgh.rest.demo.model.dto.AbstractDTO;
+import org.modelmapper.ModelMapper;
+
+/**
+ * A {@link DTOMapper} backed by {@link ModelMapper}. This works for any pair of classes whose properties match, at the
+ * cost of reflection on every call, and is used for entities that have no generated mapper.
+ *
+ * @param <S> the entity type.
+ * @param <T> the data transfer object type.
+ */
+public class ModelMapperDTOMapper<S extends AbstractEntity, T extends AbstractDTO> implements DTOMapper<S, T> {
+
+    /**
+     * The model mapper doing the conversions.
+     */
+    private final ModelMapper modelMapper;
+
+    /**
+     * The entity class type.
+     */
+    private final Class<S> entityClassType;
+
+    /**
+     * The DTO class type.
+     */
+    private final Class<T> dtoClassType;
+
+    /**
+     * @param modelMapper     the model mapper doing the conversions.
+     * @param entityClassType the entity class type.
+     * @param dtoClassType    the DTO class type.
+     */
+    public ModelMapperDTOMapper(ModelMapper modelMapper, Class<S> entityClassType, Class<T> dtoClassType) {
+        this.modelMapper = modelMapper;
+        this.entityClassType = entityClassType;
+        this.dtoClassType = dtoClassType;
+    }
+
+    @Override
+    public T toDTO(S entity) {
+        return modelMapper.map(entity, dtoClassType);
+    }
+
+    @Override
+    public S toEntity(T dto) {
+        return modelMapper.map(dto, entityClassType);
+    }
+}
@@ -0,0 +1,19 @@
+package ca.dgh.rest.demo.mapper;
+
+import ca.dgh.rest.demo.model.Province;
+import ca.dgh.rest.demo.model.dto.ProvinceDTO;
+import org.mapstruct.Mapper;
+
+/**
+ * Converts between {@link Province} and {@link ProvinceDTO} with plain getter and setter calls generated at compile
+ * time. The search keys of a province have no setters, they are derived from its names when it is written.
+ */
+@Mapper
+public interface ProvinceMapper extends DTOMapper<Province, ProvinceDTO> {
+
+    @Override
+    ProvinceDTO toDTO(Province entity);
+
+    @Override
+    Province toEntity(ProvinceDTO dto);
+}
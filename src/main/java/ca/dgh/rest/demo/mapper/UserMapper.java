@@ -0,0 +1,23 @@
+package ca.dgh.rest.demo.mapper;
+
+import ca.dgh.rest.demo.model.User;
+import ca.dgh.rest.demo.model.dto.UserDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Converts between {@link User} and {@link UserDTO} with plain getter and setter calls generated at compile time.
+ */
+@Mapper
+public interface UserMapper extends DTOMapper<User, UserDTO> {
+
+    @Override
+    UserDTO toDTO(User entity);
+
+    /**
+     * The province relation is read only, the province is set through {@link User#getProvinceId()}.
+     */
+    @Override
+    @Mapping(target = "province", ignore = true)
+    User toEntity(UserDTO dto);
+}
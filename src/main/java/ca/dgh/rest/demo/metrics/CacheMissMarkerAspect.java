@@ -0,0 +1,30 @@
+package ca.dgh.rest.demo.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Marks the service calls whose body runs. This runs inside of the caching interceptor, which is ordered by
+ * {@link ca.dgh.rest.demo.configuration.CachingConfiguration#CACHE_ADVISOR_ORDER}, so it is only reached on a cache
+ * miss. The {@link ServiceMetricsAspect} reads the mark to tag its timer.
+ */
+@Aspect
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class CacheMissMarkerAspect {
+
+    /**
+     * Mark that the body of a service call ran.
+     *
+     * @param joinPoint the service call.
+     * @return the result of the call.
+     * @throws Throwable whatever the call throws.
+     */
+    @Around(ServiceMetricsAspect.SERVICE_OPERATIONS)
+    public Object mark(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServiceCallContext.markInvoked();
+        return joinPoint.proceed();
+    }
+}
@@ -0,0 +1,139 @@
+package ca.dgh.rest.demo.metrics;
+
+import ca.dgh.rest.demo.model.AbstractEntity;
+import ca.dgh.rest.demo.model.dto.AbstractDTO;
+import ca.dgh.rest.demo.service.AbstractDTOAwareService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Instruments the hot path of the application with Micrometer:
+ * <ul>
+ *     <li>every generic service operation is timed, tagged with the entity and whether it was a cache hit or miss,
+ *     and the slowest recent calls are listed by the {@code /actuator/slowcalls} endpoint;</li>
+ *     <li>every conversion between entities and DTOs is timed;</li>
+ *     <li>the serialization of every JSON, XML, Smile and CBOR response body is timed;</li>
+ *     <li>the number of SQL statements run by every request is recorded.</li>
+ * </ul>
+ * All timers publish histograms, so percentiles can be computed across instances by the monitoring system.
+ */
+@Configuration
+public class MetricsConfiguration implements WebMvcConfigurer {
+
+    /**
+     * The registry all metrics are published to.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param meterRegistry the registry all metrics are published to.
+     */
+    public MetricsConfiguration(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param threshold the calls that took longer than this are recorded.
+     * @param capacity  the number of calls kept.
+     * @return the recorder keeping the slowest recent service calls.
+     */
+    @Bean
+    public SlowCallRecorder slowCallRecorder(@Value("${demo.metrics.slow-call-threshold:100ms}") Duration threshold,
+                                             @Value("${demo.metrics.slow-call-capacity:100}") int capacity) {
+        return new SlowCallRecorder(threshold, capacity);
+    }
+
+    /**
+     * @param slowCallRecorder the recorder keeping the slowest recent service calls.
+     * @return the {@code /actuator/slowcalls} endpoint.
+     */
+    @Bean
+    public SlowCallsEndpoint slowCallsEndpoint(SlowCallRecorder slowCallRecorder) {
+        return new SlowCallsEndpoint(slowCallRecorder);
+    }
+
+    /**
+     * @param slowCallRecorder the recorder keeping the slowest recent service calls.
+     * @return the aspect timing the service operations.
+     */
+    @Bean
+    public ServiceMetricsAspect serviceMetricsAspect(SlowCallRecorder slowCallRecorder) {
+        return new ServiceMetricsAspect(meterRegistry, slowCallRecorder);
+    }
+
+    /**
+     * @return the aspect telling cache hits from misses.
+     */
+    @Bean
+    public CacheMissMarkerAspect cacheMissMarkerAspect() {
+        return new CacheMissMarkerAspect();
+    }
+
+    /**
+     * Wrap the mapper of every service so that conversions are timed. This runs after the mapper has been injected and
+     * before the service is initialized, so conversions made while starting up are timed too.
+     *
+     * @param meterRegistry the registry the timers are published to, looked up when the first service is created.
+     * @return the post processor wrapping the mappers.
+     */
+    @Bean
+    public static BeanPostProcessor timedDTOMapperPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractDTOAwareService<?, ?> service) {
+                    wrapMapper(service, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * @return the customizer registering the statement inspector that counts queries.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return properties -> properties.put("hibernate.session_factory.statement_inspector", new QueryCounter());
+    }
+
+    /**
+     * @param objectMapper the object mapper of the application.
+     * @return the JSON converter, replacing the one Spring Boot would have registered.
+     */
+    @Bean
+    public TimedJsonHttpMessageConverter timedJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJsonHttpMessageConverter(objectMapper, meterRegistry);
+    }
+
+    /**
+     * @param builder the builder configured with the application's Jackson settings.
+     * @return the XML converter, replacing the one Spring Boot would have registered.
+     */
+    @Bean
+    public TimedXmlHttpMessageConverter timedXmlHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new TimedXmlHttpMessageConverter(builder.createXmlMapper(true).build(), meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryCountInterceptor(meterRegistry));
+    }
+
+    private static <S extends AbstractEntity, T extends AbstractDTO> void wrapMapper(AbstractDTOAwareService<S, T> service, MeterRegistry meterRegistry) {
+        if (!(service.getMapper() instanceof TimedDTOMapper)) {
+            service.setMapper(new TimedDTOMapper<>(service.getMapper(), service.getCacheName(), meterRegistry));
+        }
+    }
+}
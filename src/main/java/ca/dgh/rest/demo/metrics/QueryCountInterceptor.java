@@ -0,0 +1,52 @@
+package ca.dgh.rest.demo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the number of SQL statements each request runs, as the {@value #METRIC_NAME} distribution tagged with the
+ * request method and URI pattern. A request that runs one statement per returned object shows up straight away.
+ */
+public class QueryCountInterceptor implements HandlerInterceptor {
+
+    /**
+     * The name of the distribution.
+     */
+    public static final String METRIC_NAME = "demo.http.queries";
+
+    /**
+     * The registry the distribution is published to.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param meterRegistry the registry the distribution is published to.
+     */
+    public QueryCountInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRIC_NAME)
+                .description("The number of SQL statements run per request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(QueryCounter.get());
+        QueryCounter.reset();
+    }
+}
@@ -0,0 +1,42 @@
+package ca.dgh.rest.demo.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread. Hibernate hands every statement to
+ * {@link #inspect(String)} before preparing it, and {@link QueryCountInterceptor} reads and resets the count around
+ * each request.
+ */
+public class QueryCounter implements StatementInspector {
+
+    /**
+     * The number of statements prepared on the current thread since the last reset.
+     */
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * Count a statement and leave it unchanged.
+     *
+     * @param sql the statement about to be prepared.
+     * @return the same statement.
+     */
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * @return the number of statements prepared on the current thread since the last reset.
+     */
+    public static int get() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * Start counting again from zero on the current thread.
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+}
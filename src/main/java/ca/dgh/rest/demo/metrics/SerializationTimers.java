@@ -0,0 +1,59 @@
+package ca.dgh.rest.demo.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the time a message converter takes to write a response body, as the {@value #METRIC_NAME} timer tagged with
+ * the format and the type written. Lists are tagged with the type of their first element.
+ */
+class SerializationTimers {
+
+    /**
+     * The name of the timer.
+     */
+    static final String METRIC_NAME = "demo.http.serialization";
+
+    /**
+     * The format written by the converter, for example {@code json}.
+     */
+    private final String format;
+
+    /**
+     * The registry the timers are published to.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param format        the format written by the converter.
+     * @param meterRegistry the registry the timers are published to.
+     */
+    SerializationTimers(String format, MeterRegistry meterRegistry) {
+        this.format = format;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param body          the body that has been written.
+     * @param durationNanos the time taken to write it.
+     */
+    void record(Object body, long durationNanos) {
+        Timer.builder(METRIC_NAME)
+                .description("The time taken to serialize response bodies")
+                .tag("format", format)
+                .tag("type", typeOf(body))
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String typeOf(Object body) {
+        if (body instanceof Collection<?> collection) {
+            Object first = collection.isEmpty() ? null : collection.iterator().next();
+            return "List<" + (first == null ? "?" : first.getClass().getSimpleName()) + ">";
+        }
+        return body == null ? "null" : body.getClass().getSimpleName();
+    }
+}
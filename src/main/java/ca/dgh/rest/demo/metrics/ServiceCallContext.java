@@ -0,0 +1,66 @@
+package ca.dgh.rest.demo.metrics;
+
+/**
+ * Tracks, per thread, whether the body of the service method being timed actually ran. When a cached method returns
+ * without its body running, the result came from the cache.
+ */
+final class ServiceCallContext {
+
+    /**
+     * The call being timed on the current thread, or {@code null} if none is.
+     */
+    private static final ThreadLocal<ServiceCallContext> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The call that was being timed when this one started, restored when this one ends.
+     */
+    private final ServiceCallContext previous;
+
+    /**
+     * Whether the body of the method ran.
+     */
+    private boolean invoked;
+
+    private ServiceCallContext(ServiceCallContext previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Start tracking a new call on the current thread.
+     *
+     * @return the context of the new call.
+     */
+    static ServiceCallContext start() {
+        ServiceCallContext context = new ServiceCallContext(CURRENT.get());
+        CURRENT.set(context);
+        return context;
+    }
+
+    /**
+     * Record that the body of the current call ran.
+     */
+    static void markInvoked() {
+        ServiceCallContext context = CURRENT.get();
+        if (context != null) {
+            context.invoked = true;
+        }
+    }
+
+    /**
+     * @return whether the body of the method ran.
+     */
+    boolean isInvoked() {
+        return invoked;
+    }
+
+    /**
+     * Stop tracking this call and go back to tracking the call it was nested in, if any.
+     */
+    void end() {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
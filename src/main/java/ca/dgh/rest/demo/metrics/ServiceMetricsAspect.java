@@ -0,0 +1,112 @@
+package ca.dgh.rest.demo.metrics;
+
+import ca.dgh.rest.demo.service.AbstractDTOAwareService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every public method of every {@link AbstractDTOAwareService}, as the {@value #METRIC_NAME} timer tagged with
+ * the entity, the operation, the outcome and, for cached methods, whether the call was a cache hit or miss.
+ * <p />
+ * This runs outside of the caching interceptor, so the time includes the cache lookup. The
+ * {@link CacheMissMarkerAspect} runs inside of it and marks the calls whose body ran, which are the cache misses.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    /**
+     * The name of the timer.
+     */
+    public static final String METRIC_NAME = "demo.service.calls";
+
+    /**
+     * The service operations that are timed: every public method of a service except its accessors.
+     */
+    static final String SERVICE_OPERATIONS = "execution(public * ca.dgh.rest.demo.service.AbstractDTOAwareService+.*(..))"
+            + " && !execution(* set*(..)) && !execution(* getCacheName()) && !execution(* getMapper())"
+            + " && !execution(* getContentVersion()) && !execution(* getObjectVersion(..))"
+            + " && !execution(* getLastModified())";
+
+    /**
+     * The registry the timers are published to.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Records the slowest calls for the {@code slowcalls} endpoint.
+     */
+    private final SlowCallRecorder slowCallRecorder;
+
+    /**
+     * Whether each method timed so far is cached.
+     */
+    private final Map<Method, Boolean> cachedMethods = new ConcurrentHashMap<>();
+
+    /**
+     * @param meterRegistry    the registry the timers are published to.
+     * @param slowCallRecorder records the slowest calls.
+     */
+    public ServiceMetricsAspect(MeterRegistry meterRegistry, SlowCallRecorder slowCallRecorder) {
+        this.meterRegistry = meterRegistry;
+        this.slowCallRecorder = slowCallRecorder;
+    }
+
+    /**
+     * Time a service call.
+     *
+     * @param joinPoint the service call.
+     * @return the result of the call.
+     * @throws Throwable whatever the call throws.
+     */
+    @Around(SERVICE_OPERATIONS)
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        AbstractDTOAwareService<?, ?> service = (AbstractDTOAwareService<?, ?>) joinPoint.getTarget();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        ServiceCallContext context = ServiceCallContext.start();
+        String outcome = "success";
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long duration = System.nanoTime() - start;
+            context.end();
+            String cache = isCached(method) ? (context.isInvoked() ? "miss" : "hit") : "none";
+            Timer.builder(METRIC_NAME)
+                    .description("The time taken by the generic service operations")
+                    .tag("entity", service.getCacheName())
+                    .tag("operation", method.getName())
+                    .tag("cache", cache)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(duration));
+            slowCallRecorder.record(service.getCacheName() + "." + method.getName(), cache, outcome, duration);
+        }
+    }
+
+    /**
+     * @param method a service method.
+     * @return whether the results of the method are cached.
+     */
+    private boolean isCached(Method method) {
+        return cachedMethods.computeIfAbsent(method,
+                m -> AnnotatedElementUtils.hasAnnotation(m, Cacheable.class));
+    }
+}
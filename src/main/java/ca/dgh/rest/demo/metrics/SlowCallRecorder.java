@@ -0,0 +1,84 @@
+package ca.dgh.rest.demo.metrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps the most recent service calls that took longer than a threshold, up to a fixed number of them. Older calls
+ * are dropped as new ones come in, so what is kept reflects recent behaviour.
+ */
+public class SlowCallRecorder {
+
+    /**
+     * A service call that took longer than the threshold.
+     *
+     * @param operation the entity and operation of the call, for example {@code user.getById}.
+     * @param cache     whether the call was a cache {@code hit} or {@code miss}, or {@code none} if it isn't cached.
+     * @param outcome   {@code success} or the simple name of the exception the call threw.
+     * @param duration  the time the call took.
+     * @param timestamp when the call ended.
+     */
+    public record SlowCall(String operation, String cache, String outcome, Duration duration, Instant timestamp) {
+    }
+
+    /**
+     * The calls that took longer than this are recorded.
+     */
+    private final long thresholdNanos;
+
+    /**
+     * The recorded calls, used as a ring buffer.
+     */
+    private final SlowCall[] calls;
+
+    /**
+     * The total number of calls recorded, which points at the next slot of the ring buffer.
+     */
+    private long recorded;
+
+    /**
+     * @param threshold the calls that took longer than this are recorded.
+     * @param capacity  the number of calls kept.
+     */
+    public SlowCallRecorder(Duration threshold, int capacity) {
+        this.thresholdNanos = threshold.toNanos();
+        this.calls = new SlowCall[capacity];
+    }
+
+    /**
+     * Record a call if it took longer than the threshold.
+     *
+     * @param operation     the entity and operation of the call.
+     * @param cache         whether the call was a cache hit or miss.
+     * @param outcome       {@code success} or the simple name of the exception the call threw.
+     * @param durationNanos the time the call took.
+     */
+    public void record(String operation, String cache, String outcome, long durationNanos) {
+        if (durationNanos < thresholdNanos) {
+            return;
+        }
+        SlowCall call = new SlowCall(operation, cache, outcome, Duration.ofNanos(durationNanos), Instant.now());
+        synchronized (calls) {
+            calls[(int) (recorded++ % calls.length)] = call;
+        }
+    }
+
+    /**
+     * @return the recorded calls, slowest first.
+     */
+    public List<SlowCall> getSlowestCalls() {
+        List<SlowCall> result = new ArrayList<>(calls.length);
+        synchronized (calls) {
+            for (SlowCall call : calls) {
+                if (call != null) {
+                    result.add(call);
+                }
+            }
+        }
+        result.sort(Comparator.comparing(SlowCall::duration).reversed());
+        return result;
+    }
+}
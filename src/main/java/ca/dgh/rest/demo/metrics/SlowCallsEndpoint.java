@@ -0,0 +1,34 @@
+package ca.dgh.rest.demo.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * The {@code /actuator/slowcalls} endpoint, listing the slowest recent service calls recorded by
+ * {@link SlowCallRecorder}.
+ */
+@Endpoint(id = "slowcalls")
+public class SlowCallsEndpoint {
+
+    /**
+     * Records the slow calls.
+     */
+    private final SlowCallRecorder slowCallRecorder;
+
+    /**
+     * @param slowCallRecorder records the slow calls.
+     */
+    public SlowCallsEndpoint(SlowCallRecorder slowCallRecorder) {
+        this.slowCallRecorder = slowCallRecorder;
+    }
+
+    /**
+     * @return the slowest recent service calls, slowest first.
+     */
+    @ReadOperation
+    public List<SlowCallRecorder.SlowCall> slowCalls() {
+        return slowCallRecorder.getSlowestCalls();
+    }
+}
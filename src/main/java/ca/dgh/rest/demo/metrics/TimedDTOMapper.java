@@ -0,0 +1,67 @@
+package ca.dgh.rest.demo.metrics;
+
+import ca.dgh.rest.demo.mapper.DTOMapper;
+import ca.dgh.rest.demo.model.AbstractEntity;
+import ca.dgh.rest.demo.model.dto.AbstractDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * A {@link DTOMapper} that times every conversion of the mapper it wraps, as the {@value #METRIC_NAME} timer tagged
+ * with the entity and the direction of the conversion.
+ *
+ * @param <S> the entity type.
+ * @param <T> the data transfer object type.
+ */
+public class TimedDTOMapper<S extends AbstractEntity, T extends AbstractDTO> implements DTOMapper<S, T> {
+
+    /**
+     * The name of the timer.
+     */
+    public static final String METRIC_NAME = "demo.mapper";
+
+    /**
+     * The mapper doing the conversions.
+     */
+    private final DTOMapper<S, T> delegate;
+
+    /**
+     * Times conversions from entity to DTO.
+     */
+    private final Timer toDTOTimer;
+
+    /**
+     * Times conversions from DTO to entity.
+     */
+    private final Timer toEntityTimer;
+
+    /**
+     * @param delegate      the mapper doing the conversions.
+     * @param entity        the name of the entity, used as a tag.
+     * @param meterRegistry the registry the timers are published to.
+     */
+    public TimedDTOMapper(DTOMapper<S, T> delegate, String entity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.toDTOTimer = timer(entity, "toDTO", delegate, meterRegistry);
+        this.toEntityTimer = timer(entity, "toEntity", delegate, meterRegistry);
+    }
+
+    @Override
+    public T toDTO(S entity) {
+        return toDTOTimer.record(() -> delegate.toDTO(entity));
+    }
+
+    @Override
+    public S toEntity(T dto) {
+        return toEntityTimer.record(() -> delegate.toEntity(dto));
+    }
+
+    private static Timer timer(String entity, String direction, DTOMapper<?, ?> delegate, MeterRegistry meterRegistry) {
+        return Timer.builder(METRIC_NAME)
+                .description("The time taken to convert between entities and DTOs")
+                .tag("entity", entity)
+                .tag("direction", direction)
+                .tag("implementation", delegate.getClass().getSimpleName())
+                .register(meterRegistry);
+    }
+}
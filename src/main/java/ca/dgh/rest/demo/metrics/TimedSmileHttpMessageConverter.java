@@ -0,0 +1,40 @@
+package ca.dgh.rest.demo.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * The Smile converter of the application, timing every response body it writes as the
+ * {@value SerializationTimers#METRIC_NAME} timer.
+ */
+public class TimedSmileHttpMessageConverter extends MappingJackson2SmileHttpMessageConverter {
+
+    /**
+     * Records the time taken to write each body.
+     */
+    private final SerializationTimers timers;
+
+    /**
+     * @param objectMapper  the Smile mapper writing the bodies.
+     * @param meterRegistry the registry the timers are published to.
+     */
+    public TimedSmileHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.timers = new SerializationTimers("smile", meterRegistry);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            timers.record(object, System.nanoTime() - start);
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package ca.dgh.rest.demo.model;
 
+import java.io.Serializable;
 import java.util.UUID;
 
-public interface AbstractEntity {
+public interface AbstractEntity extends Serializable {
     UUID getId();
+
+    /**
+     * @return the version of the entity, incremented on every update and used for optimistic locking.
+     */
+    Long getVersion();
 }
@@ -1,12 +1,20 @@
 package ca.dgh.rest.demo.model;
 
+import ca.dgh.rest.demo.configuration.HibernateCacheConfiguration;
+import ca.dgh.rest.demo.lookup.SearchKeyNormalizer;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
@@ -14,12 +22,39 @@ import java.util.UUID;
 @Getter
 @Setter
 @Table(name = "LK_PROVINCE")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = HibernateCacheConfiguration.PROVINCE_REGION)
 public class Province implements AbstractEntity {
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
     @Size(max = 4)
     private String code;
     private String nameEn;
     private String nameFr;
+
+    @Version
+    private Long version;
+
+    /**
+     * The English name lower cased and without accents. This is maintained by {@link #updateSearchKeys()}.
+     */
+    @Setter(AccessLevel.NONE)
+    private String nameEnKey;
+
+    /**
+     * The French name lower cased and without accents. This is maintained by {@link #updateSearchKeys()}.
+     */
+    @Setter(AccessLevel.NONE)
+    private String nameFrKey;
+
+    /**
+     * Keep the indexed search keys in line with the names before every write.
+     */
+    @PrePersist
+    @PreUpdate
+    void updateSearchKeys() {
+        nameEnKey = SearchKeyNormalizer.normalize(nameEn);
+        nameFrKey = SearchKeyNormalizer.normalize(nameFr);
+    }
 }
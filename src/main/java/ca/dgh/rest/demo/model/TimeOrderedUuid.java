@@ -0,0 +1,19 @@
+package ca.dgh.rest.demo.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an id that is generated by the application as a time-ordered UUID using {@link TimeOrderedUuidGenerator}.
+ * Unlike random UUIDs, these are created in roughly ascending order so new rows are appended to the end of the primary
+ * key index instead of being scattered across it.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedUuid {
+}
@@ -0,0 +1,62 @@
+package ca.dgh.rest.demo.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates version 7 UUIDs: the 48 most significant bits hold the number of milliseconds since the epoch and the rest
+ * is random, apart from the version and variant bits. The ids therefore sort by creation time, which keeps inserts
+ * local to the end of the primary key index, while still being unique across instances without a round trip to the
+ * database.
+ * <p />
+ * The id is generated before the insert is executed, which lets Hibernate group inserts into JDBC batches.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    /**
+     * The source of the random bits of every id.
+     */
+    private static final Random RANDOM = new SecureRandom();
+
+    /**
+     * Generate a new id for an entity that is about to be inserted.
+     *
+     * @param session      the session the entity is being inserted in.
+     * @param owner        the entity being inserted.
+     * @param currentValue the current id of the entity.
+     * @param eventType    the event that triggered the generation, always an insert.
+     * @return a new time-ordered UUID.
+     */
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return generateUuid();
+    }
+
+    /**
+     * @return ids are only generated on insert.
+     */
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+
+    /**
+     * Create a new version 7 UUID. This is also used by code that inserts rows without going through Hibernate.
+     *
+     * @return a new time-ordered UUID.
+     */
+    public static UUID generateUuid() {
+        long randomHigh = RANDOM.nextLong();
+        long randomLow = RANDOM.nextLong();
+        long mostSigBits = (System.currentTimeMillis() << 16) | 0x7000L | (randomHigh & 0x0FFFL);
+        long leastSigBits = (randomLow & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
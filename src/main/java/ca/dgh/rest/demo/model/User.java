@@ -1,8 +1,13 @@
 package ca.dgh.rest.demo.model;
 
+import ca.dgh.rest.demo.configuration.HibernateCacheConfiguration;
+import ca.dgh.rest.demo.lookup.SearchKeyNormalizer;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
@@ -11,9 +16,11 @@ import java.util.UUID;
 @Getter
 @Setter
 @Table(name = "APP_USER")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfiguration.USER_REGION)
 public class User implements AbstractEntity {
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
     private String firstName;
     private String lastName;
@@ -25,4 +32,28 @@ public class User implements AbstractEntity {
     @Column(name = "province_id")
     private UUID provinceId;
 
+    @Version
+    private Long version;
+
+    /**
+     * The first name lower cased and without accents. This is maintained by {@link #updateSearchKeys()}.
+     */
+    @Setter(AccessLevel.NONE)
+    private String firstNameKey;
+
+    /**
+     * The last name lower cased and without accents. This is maintained by {@link #updateSearchKeys()}.
+     */
+    @Setter(AccessLevel.NONE)
+    private String lastNameKey;
+
+    /**
+     * Keep the indexed search keys in line with the names before every write.
+     */
+    @PrePersist
+    @PreUpdate
+    void updateSearchKeys() {
+        firstNameKey = SearchKeyNormalizer.normalize(firstName);
+        lastNameKey = SearchKeyNormalizer.normalize(lastName);
+    }
 }
@@ -3,10 +3,17 @@ package ca.dgh.rest.demo.model.dto;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.io.Serializable;
 import java.util.UUID;
 
 @Getter
 @Setter
-public abstract class AbstractDTO {
+public abstract class AbstractDTO implements Serializable {
     private UUID id;
+
+    /**
+     * The version of the object when it was read. Sending it back with an update makes sure the update doesn't
+     * overwrite a change made in the meantime.
+     */
+    private Long version;
 }
@@ -0,0 +1,30 @@
+package ca.dgh.rest.demo.model.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The objects found for a list of ids. Ids with no matching object are listed rather than failing the whole batch.
+ *
+ * @param <T> the type of the objects.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchDTO<T extends AbstractDTO> implements Serializable {
+
+    /**
+     * The objects found, in the order their ids were given.
+     */
+    private List<T> content;
+
+    /**
+     * The ids no object was found for, in the order they were given.
+     */
+    private List<UUID> missingIds;
+}
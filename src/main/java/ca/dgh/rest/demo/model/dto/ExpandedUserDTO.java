@@ -0,0 +1,29 @@
+package ca.dgh.rest.demo.model.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A user along with its province, returned instead of a {@link UserDTO} when a client asks for {@code ?expand=province}
+ * so that it doesn't have to fetch the province of every user separately.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ExpandedUserDTO extends UserDTO {
+
+    /**
+     * The province of the user, or {@code null} if the user has none.
+     */
+    private ProvinceDTO province;
+
+    /**
+     * @param user     the user to expand.
+     * @param province the province of the user.
+     */
+    public ExpandedUserDTO(UserDTO user, ProvinceDTO province) {
+        super(user.getId(), user.getFirstName(), user.getLastName(), user.getProvinceId(), user.getVersion());
+        this.province = province;
+    }
+}
@@ -0,0 +1,96 @@
+package ca.dgh.rest.demo.model.dto;
+
+import ca.dgh.rest.demo.importer.DataFileFormat;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The state of an import running in the background.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportJobDTO {
+
+    /**
+     * The id to ask for the state of the import with.
+     */
+    private UUID id;
+
+    /**
+     * Where the import is at.
+     */
+    private Status status;
+
+    /**
+     * The name of the uploaded file.
+     */
+    private String fileName;
+
+    /**
+     * The format of the uploaded file.
+     */
+    private DataFileFormat format;
+
+    /**
+     * When the file was uploaded.
+     */
+    private Instant submittedAt;
+
+    /**
+     * When the import started, or {@code null} while it is queued.
+     */
+    private Instant startedAt;
+
+    /**
+     * When the import finished, or {@code null} while it is queued or running.
+     */
+    private Instant finishedAt;
+
+    /**
+     * The number of rows read per second since the import started.
+     */
+    private double rowsPerSecond;
+
+    /**
+     * The rows read, imported and rejected so far, along with the reason each row was rejected.
+     */
+    private ImportResultDTO result = new ImportResultDTO();
+
+    /**
+     * Why the import stopped before the end of the file, when it failed, or why it never started, when it was
+     * cancelled.
+     */
+    private String failure;
+
+    /**
+     * Where an import is at.
+     */
+    public enum Status {
+        /**
+         * The import waits for a worker.
+         */
+        QUEUED,
+        /**
+         * The file is being imported.
+         */
+        RUNNING,
+        /**
+         * The whole file has been read. Some rows may have been rejected.
+         */
+        COMPLETED,
+        /**
+         * The import stopped before the end of the file, for instance because the file is malformed. The rows
+         * imported until then are kept.
+         */
+        FAILED,
+        /**
+         * The import was still waiting for a worker when the application shut down, so nothing was imported.
+         */
+        CANCELLED
+    }
+}
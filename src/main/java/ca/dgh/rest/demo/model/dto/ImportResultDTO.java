@@ -0,0 +1,36 @@
+package ca.dgh.rest.demo.model.dto;
+
+import ca.dgh.rest.demo.exception.ApiExceptionList;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The outcome of importing a data file.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportResultDTO {
+
+    /**
+     * The number of data rows found in the file.
+     */
+    private long rowsRead;
+
+    /**
+     * The number of rows that have been persisted.
+     */
+    private long rowsImported;
+
+    /**
+     * The number of rows that have been rejected.
+     */
+    private long rowsRejected;
+
+    /**
+     * The reasons rows have been rejected. Each error carries the row number as its value. Only the first errors are
+     * kept, so a file full of bad rows can't exhaust the memory; {@link #getRowsRejected()} has the full count.
+     */
+    private ApiExceptionList errors = new ApiExceptionList();
+}
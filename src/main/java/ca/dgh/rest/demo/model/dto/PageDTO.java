@@ -0,0 +1,51 @@
+package ca.dgh.rest.demo.model.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A single page of objects. Pages fetched by number carry the page number and the totals, pages fetched after a
+ * continuation token carry the token of the next page instead, since counting rows is what keyset paging avoids.
+ *
+ * @param <T> the type of the objects in the page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class PageDTO<T extends AbstractDTO> implements Serializable {
+
+    /**
+     * The objects in this page.
+     */
+    private List<T> content;
+
+    /**
+     * The maximum number of objects in a page.
+     */
+    private int size;
+
+    /**
+     * The number of this page, starting at 0. Only set on pages fetched by number.
+     */
+    private Integer page;
+
+    /**
+     * The number of objects in all pages. Only set on pages fetched by number.
+     */
+    private Long totalElements;
+
+    /**
+     * The number of pages. Only set on pages fetched by number.
+     */
+    private Integer totalPages;
+
+    /**
+     * The token to pass to get the next page, or {@code null} if this is the last page. Only set on pages fetched after
+     * a continuation token.
+     */
+    private String nextToken;
+}
@@ -2,16 +2,38 @@ package ca.dgh.rest.demo.model.dto;
 
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.annotation.PersistenceCreator;
 
 import java.util.UUID;
 
 @Getter
 @Setter
+@NoArgsConstructor
 public class ProvinceDTO extends AbstractDTO implements LookupDTO {
     private UUID id;
     @Size(max = 4)
     private String code;
     private String nameEn;
     private String nameFr;
+
+    /**
+     * The constructor the repositories project provinces into. The parameters are named after the attributes of
+     * {@link ca.dgh.rest.demo.model.Province}.
+     *
+     * @param id      the id of the province.
+     * @param code    the code of the province.
+     * @param nameEn  the English name of the province.
+     * @param nameFr  the French name of the province.
+     * @param version the version of the province.
+     */
+    @PersistenceCreator
+    public ProvinceDTO(UUID id, String code, String nameEn, String nameFr, Long version) {
+        this.id = id;
+        this.code = code;
+        this.nameEn = nameEn;
+        this.nameFr = nameFr;
+        setVersion(version);
+    }
 }
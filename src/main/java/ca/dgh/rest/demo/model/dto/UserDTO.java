@@ -1,15 +1,37 @@
 package ca.dgh.rest.demo.model.dto;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.annotation.PersistenceCreator;
 
 import java.util.UUID;
 
 @Getter
 @Setter
+@NoArgsConstructor
 public class UserDTO extends AbstractDTO {
     private UUID id;
     private String firstName;
     private String lastName;
     private UUID provinceId;
+
+    /**
+     * The constructor the repositories project users into. The parameters are named after the attributes of
+     * {@link ca.dgh.rest.demo.model.User}.
+     *
+     * @param id         the id of the user.
+     * @param firstName  the first name of the user.
+     * @param lastName   the last name of the user.
+     * @param provinceId the id of the province of the user.
+     * @param version    the version of the user.
+     */
+    @PersistenceCreator
+    public UserDTO(UUID id, String firstName, String lastName, UUID provinceId, Long version) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.provinceId = provinceId;
+        setVersion(version);
+    }
 }
@@ -0,0 +1,111 @@
+package ca.dgh.rest.demo.model.dto;
+
+import ca.dgh.rest.demo.lookup.SearchKeyNormalizer;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Sort;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * The filters and order of a user search. Every filter is optional and filters that are given must all match. Names
+ * are matched regardless of case and accents, like province names.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserSearchDTO implements Serializable {
+
+    /**
+     * The start of the last name of the users.
+     */
+    private String lastName;
+
+    /**
+     * The first name of the users.
+     */
+    private String firstName;
+
+    /**
+     * The id of the province of the users.
+     */
+    private UUID provinceId;
+
+    /**
+     * The attribute the users are ordered by. Users with the same value are ordered by id.
+     */
+    private SortField sort = SortField.LAST_NAME;
+
+    /**
+     * The direction the users are ordered in.
+     */
+    private Sort.Direction direction = Sort.Direction.ASC;
+
+    /**
+     * Get a key identifying this search, used to cache its results. Searches that only differ by the case or accents
+     * of their names share the same key since they find the same users.
+     *
+     * @return the cache key of this search.
+     */
+    public String toCacheKey() {
+        return "lastName=" + SearchKeyNormalizer.normalize(lastName)
+                + "&firstName=" + SearchKeyNormalizer.normalize(firstName)
+                + "&provinceId=" + provinceId + "&sort=" + sortOrDefault() + "&direction=" + directionOrDefault();
+    }
+
+    /**
+     * Get the order of the users found by this search. A missing attribute or direction falls back to its default,
+     * since an empty query parameter binds to {@code null}.
+     *
+     * @return the order of the users, ending with the id so that pages are stable.
+     */
+    public Sort toSort() {
+        return sortOrDefault().toSort(directionOrDefault());
+    }
+
+    private SortField sortOrDefault() {
+        return sort == null ? SortField.LAST_NAME : sort;
+    }
+
+    private Sort.Direction directionOrDefault() {
+        return direction == null ? Sort.Direction.ASC : direction;
+    }
+
+    /**
+     * The attributes users can be ordered by.
+     */
+    public enum SortField {
+        /**
+         * Order by last name, then first name.
+         */
+        LAST_NAME("lastNameKey", "firstNameKey"),
+        /**
+         * Order by first name, then last name.
+         */
+        FIRST_NAME("firstNameKey", "lastNameKey"),
+        /**
+         * Order by id, which is the order users were created in.
+         */
+        ID;
+
+        /**
+         * The attributes of {@link ca.dgh.rest.demo.model.User} to order by, before the id.
+         */
+        private final String[] attributes;
+
+        SortField(String... attributes) {
+            this.attributes = attributes;
+        }
+
+        /**
+         * @param direction the direction to order in.
+         * @return the order of the users, ending with the id so that pages are stable.
+         */
+        public Sort toSort(Sort.Direction direction) {
+            Sort byId = Sort.by(direction, "id");
+            return attributes.length == 0 ? byId : Sort.by(direction, attributes).and(byId);
+        }
+    }
+}
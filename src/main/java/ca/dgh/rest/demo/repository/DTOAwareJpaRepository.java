@@ -0,0 +1,49 @@
+package ca.dgh.rest.demo.repository;
+
+import ca.dgh.rest.demo.model.AbstractEntity;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * The base class of every repository, implementing the methods of {@link DTOAwareRepository} that can't be derived
+ * from their name.
+ *
+ * @param <S> the entity managed by the repository.
+ */
+public class DTOAwareJpaRepository<S extends AbstractEntity> extends SimpleJpaRepository<S, UUID> {
+
+    /**
+     * The entity manager the repository works with.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * @param entityInformation the metadata of the entity managed by the repository.
+     * @param entityManager     the entity manager the repository works with.
+     */
+    public DTOAwareJpaRepository(JpaEntityInformation<S, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Update an existing entity with a single statement. The entity is reattached to the session as is rather than
+     * merged, which would load it first, and flushed straight away so that a missing or stale row is reported here.
+     *
+     * @param entity the new state of the entity, including the version it was read at.
+     * @return the updated entity, with its new version.
+     * @see DTOAwareRepository#updateExisting(AbstractEntity)
+     */
+    @Transactional
+    @SuppressWarnings("deprecation")
+    public S updateExisting(S entity) {
+        entityManager.unwrap(Session.class).update(entity);
+        entityManager.flush();
+        return entity;
+    }
+}
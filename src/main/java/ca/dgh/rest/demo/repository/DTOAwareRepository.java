@@ -0,0 +1,177 @@
+package ca.dgh.rest.demo.repository;
+
+import ca.dgh.rest.demo.model.AbstractEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * The repository every {@link ca.dgh.rest.demo.service.AbstractDTOAwareService} works with. On top of the usual
+ * {@link JpaRepository} methods it provides the queries the services read through, which project straight into DTOs,
+ * and writes that take a single round trip to the database. {@link #updateExisting(AbstractEntity)} is implemented by
+ * {@link DTOAwareJpaRepository}.
+ *
+ * @param <S> the entity managed by the repository.
+ */
+@NoRepositoryBean
+public interface DTOAwareRepository<S extends AbstractEntity> extends JpaRepository<S, UUID> {
+
+    /**
+     * The number of rows fetched from the database per round trip when streaming a whole table.
+     */
+    int EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * The largest number of ids bound to a single {@code IN} query. Some databases, such as Oracle, reject more than
+     * this and most slow down well before their own limit.
+     */
+    int MAX_IN_PARAMETERS = 1000;
+
+    /**
+     * Get every entity of the table as the given type. Reads go through these projections: when the type is a DTO,
+     * the query selects its constructor arguments straight into it, so no entity is loaded into the persistence context
+     * and nothing has to be dirty checked. The constructor of the DTO is the one annotated with
+     * {@link org.springframework.data.annotation.PersistenceCreator}, and its parameters are named after the attributes
+     * of the entity.
+     *
+     * @param type the type to read the entities as.
+     * @param <P>  the type to read the entities as.
+     * @return every entity in the table.
+     */
+    <P> List<P> findAllProjectedBy(Class<P> type);
+
+    /**
+     * Get a page of entities as the given type, along with the number of entities in the table.
+     *
+     * @param pageable the page to get and the order of the entities.
+     * @param type     the type to read the entities as.
+     * @param <P>      the type to read the entities as.
+     * @return the requested page.
+     */
+    <P> Page<P> findPageProjectedBy(Pageable pageable, Class<P> type);
+
+    /**
+     * Get a slice of all entities as the given type without counting the rows in the table, unlike
+     * {@link #findPageProjectedBy(Pageable, Class)}.
+     *
+     * @param pageable the page to get and the order of the entities.
+     * @param type     the type to read the entities as.
+     * @param <P>      the type to read the entities as.
+     * @return the entities of the requested page.
+     */
+    <P> List<P> findAllProjectedBy(Pageable pageable, Class<P> type);
+
+    /**
+     * Get the entities whose id comes after the given id, as the given type. Ids are time-ordered and indexed, so this
+     * seeks straight to the right place in the index no matter how deep into the table the page is.
+     *
+     * @param id       the id of the last entity of the previous page.
+     * @param pageable the number of entities to get and their order, which must be by id.
+     * @param type     the type to read the entities as.
+     * @param <P>      the type to read the entities as.
+     * @return the entities that come after the given id.
+     */
+    <P> List<P> findProjectedByIdGreaterThan(UUID id, Pageable pageable, Class<P> type);
+
+    /**
+     * Get an entity by id as the given type.
+     *
+     * @param id   the id of the entity.
+     * @param type the type to read the entity as.
+     * @param <P>  the type to read the entity as.
+     * @return the entity, or an empty {@link Optional} if there is no entity with this id.
+     */
+    <P> Optional<P> findProjectedById(UUID id, Class<P> type);
+
+    /**
+     * Get the entities with the given ids as the given type, with a single {@code IN} query. At most
+     * {@link #MAX_IN_PARAMETERS} ids should be given at once.
+     *
+     * @param ids  the ids of the entities.
+     * @param type the type to read the entities as.
+     * @param <P>  the type to read the entities as.
+     * @return the entities found, in no particular order.
+     */
+    <P> List<P> findProjectedByIdIn(Collection<UUID> ids, Class<P> type);
+
+    /**
+     * Stream every entity in the table as the given type, ordered by id. The rows are fetched from the database cursor
+     * a few at a time. This must be called within a transaction and the stream must be closed.
+     *
+     * @param type the type to read the entities as.
+     * @param <P>  the type to read the entities as.
+     * @return a stream of every entity in the table.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    <P> Stream<P> streamProjectedByOrderByIdAsc(Class<P> type);
+
+    /**
+     * Get the current version of an entity without loading it. This is read on the way to a write, so it runs in a
+     * read-write transaction, which is always answered by the primary: the replica may not have the entity yet.
+     *
+     * @param id the id of the entity.
+     * @return the version of the entity, or an empty {@link Optional} if there is no entity with this id.
+     */
+    @Transactional
+    @Query("select e.version from #{#entityName} e where e.id = ?1")
+    Optional<Long> findVersionById(UUID id);
+
+    /**
+     * Get a summary of the table that changes whenever a row is inserted, updated or deleted: inserted ids are
+     * time-ordered, so the largest id changes on insert, the sum of the versions on update and the number of rows on
+     * delete.
+     *
+     * @return the number of rows, the largest id and the sum of the versions of the table.
+     */
+    @Query("select count(e) as rows, max(e.id) as lastId, coalesce(sum(e.version), 0) as versions"
+            + " from #{#entityName} e")
+    TableVersion findTableVersion();
+
+    /**
+     * Delete an entity with a single statement. Unlike {@link #deleteById(Object)}, the entity isn't loaded first.
+     *
+     * @param id the id of the entity.
+     * @return the number of entities deleted, 0 if there was no entity with this id.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from #{#entityName} e where e.id = ?1")
+    int removeById(UUID id);
+
+    /**
+     * Update an existing entity with a single {@code UPDATE ... WHERE id = ? AND version = ?} statement. Unlike
+     * {@link #save(Object)}, the entity isn't loaded first.
+     *
+     * @param entity the new state of the entity, including the version it was read at.
+     * @return the updated entity, with its new version.
+     * @throws org.springframework.dao.OptimisticLockingFailureException when no row was updated, either because the
+     *                                                                   entity doesn't exist or because its version
+     *                                                                   has changed.
+     */
+    S updateExisting(S entity);
+
+    /**
+     * The summary of a table returned by {@link #findTableVersion()}.
+     */
+    interface TableVersion {
+        long getRows();
+
+        UUID getLastId();
+
+        long getVersions();
+    }
+}
@@ -1,21 +1,52 @@
 package ca.dgh.rest.demo.repository;
 
 import ca.dgh.rest.demo.model.Province;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ProvinceRepository extends JpaRepository<Province, UUID> {
+public interface ProvinceRepository extends DTOAwareRepository<Province> {
 
     /**
-     * Really this would be a lot nicer to do with a CriteraAPI query, but it will do for now.
-     * @param nameEn the name of a province in English to match
-     * @param nameFr the name of a province in French to match
-     * @return a Province object that matches the English or French names.
+     * Get a province by id as the given type. This is only reached for provinces missing from the lookup table, so the
+     * result is kept in the query cache, including when no province is found.
+     *
+     * @param id   the id of the province.
+     * @param type the type to read the province as.
+     * @param <P>  the type to read the province as.
+     * @return the province with the given id.
      */
-    Optional<Province> findOneProvinceByNameEnIgnoreCaseOrNameFrIgnoreCase(String nameEn, String nameFr);
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    <P> Optional<P> findProjectedById(UUID id, Class<P> type);
+
+    /**
+     * Find a province by the search key of its English name. The key column is indexed, so this is an index seek, and
+     * the result is kept in the query cache.
+     *
+     * @param nameEnKey the English name normalized by {@link ca.dgh.rest.demo.lookup.SearchKeyNormalizer}.
+     * @param type      the type to read the province as.
+     * @param <P>       the type to read the province as.
+     * @return a Province whose English name matches the key.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    <P> Optional<P> findFirstByNameEnKey(String nameEnKey, Class<P> type);
+
+    /**
+     * Find a province by the search key of its French name. The key column is indexed, so this is an index seek, and
+     * the result is kept in the query cache.
+     *
+     * @param nameFrKey the French name normalized by {@link ca.dgh.rest.demo.lookup.SearchKeyNormalizer}.
+     * @param type      the type to read the province as.
+     * @param <P>       the type to read the province as.
+     * @return a Province whose French name matches the key.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    <P> Optional<P> findFirstByNameFrKey(String nameFrKey, Class<P> type);
 
 }
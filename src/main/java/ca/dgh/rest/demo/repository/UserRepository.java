@@ -1,11 +1,8 @@
 package ca.dgh.rest.demo.repository;
 
 import ca.dgh.rest.demo.model.User;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.UUID;
-
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends DTOAwareRepository<User>, UserSearchRepository {
 }
@@ -0,0 +1,24 @@
+package ca.dgh.rest.demo.repository;
+
+import ca.dgh.rest.demo.model.User;
+import ca.dgh.rest.demo.model.dto.UserDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * The user search, implemented by {@link UserSearchRepositoryImpl}. It is a separate fragment of the
+ * {@link UserRepository} because Spring Data can only select DTOs from specification queries by loading the entities
+ * first, whereas this selects the DTOs directly like every other read.
+ */
+public interface UserSearchRepository {
+
+    /**
+     * Get a page of the users matching the given specification, along with the number of matching users.
+     *
+     * @param specification the filters the users must match.
+     * @param pageable      the page to get and the order of the users.
+     * @return the requested page.
+     */
+    Page<UserDTO> searchProjected(Specification<User> specification, Pageable pageable);
+}
@@ -0,0 +1,78 @@
+package ca.dgh.rest.demo.repository;
+
+import ca.dgh.rest.demo.model.User;
+import ca.dgh.rest.demo.model.dto.UserDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+/**
+ * Runs the user search with the Criteria API, selecting the {@link UserDTO} constructor arguments straight from the
+ * matching rows.
+ */
+public class UserSearchRepositoryImpl implements UserSearchRepository {
+
+    /**
+     * The entity manager the queries are run with.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * @param entityManager the entity manager the queries are run with.
+     */
+    public UserSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Get a page of the users matching the given specification. The users are counted only when the page doesn't
+     * tell the total by itself, which is the case for a first page that isn't full.
+     *
+     * @param specification the filters the users must match.
+     * @param pageable      the page to get and the order of the users.
+     * @return the requested page.
+     */
+    @Override
+    public Page<UserDTO> searchProjected(Specification<User> specification, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserDTO> query = builder.createQuery(UserDTO.class);
+        Root<User> root = query.from(User.class);
+        query.select(builder.construct(UserDTO.class, root.get("id"), root.get("firstName"), root.get("lastName"),
+                root.get("provinceId"), root.get("version")));
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+        List<UserDTO> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    /**
+     * @param specification the filters the users must match.
+     * @return the number of users matching the specification.
+     */
+    private long count(Specification<User> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<User> root = query.from(User.class);
+        query.select(builder.count(root));
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
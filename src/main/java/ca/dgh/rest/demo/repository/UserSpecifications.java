@@ -0,0 +1,71 @@
+package ca.dgh.rest.demo.repository;
+
+import ca.dgh.rest.demo.lookup.SearchKeyNormalizer;
+import ca.dgh.rest.demo.model.User;
+import ca.dgh.rest.demo.model.dto.UserSearchDTO;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.UUID;
+
+/**
+ * The filters of the user search, as {@link Specification specifications} that can be combined freely. Names are
+ * matched on the indexed search key columns, so the filters are index lookups rather than scans of the table.
+ */
+public final class UserSpecifications {
+
+    /**
+     * The character escaping the wildcards of {@code LIKE} patterns.
+     */
+    private static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * All methods in this class should be statically accessed. So we make it impossible to instantiate this class.
+     */
+    private UserSpecifications() {
+    }
+
+    /**
+     * @param criteria the filters of the search.
+     * @return the specification matching every filter given, which matches every user if none is given.
+     */
+    public static Specification<User> matching(UserSearchDTO criteria) {
+        return Specification.allOf(lastNameStartsWith(criteria.getLastName()), firstNameIs(criteria.getFirstName()),
+                inProvince(criteria.getProvinceId()));
+    }
+
+    /**
+     * @param prefix the start of the last name, or {@code null} to match every user.
+     * @return the specification matching the users whose last name starts with the given prefix.
+     */
+    public static Specification<User> lastNameStartsWith(String prefix) {
+        String key = SearchKeyNormalizer.normalize(prefix);
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        String pattern = key.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, builder) -> builder.like(root.get("lastNameKey"), pattern, LIKE_ESCAPE);
+    }
+
+    /**
+     * @param firstName the first name, or {@code null} to match every user.
+     * @return the specification matching the users with the given first name.
+     */
+    public static Specification<User> firstNameIs(String firstName) {
+        String key = SearchKeyNormalizer.normalize(firstName);
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        return (root, query, builder) -> builder.equal(root.get("firstNameKey"), key);
+    }
+
+    /**
+     * @param provinceId the id of the province, or {@code null} to match every user.
+     * @return the specification matching the users of the given province.
+     */
+    public static Specification<User> inProvince(UUID provinceId) {
+        if (provinceId == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.equal(root.get("provinceId"), provinceId);
+    }
+}
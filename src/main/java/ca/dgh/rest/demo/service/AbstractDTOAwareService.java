@@ -1,27 +1,70 @@
 package ca.dgh.rest.demo.service;
 
 import ca.dgh.rest.demo.configuration.CachingConfiguration;
+import ca.dgh.rest.demo.configuration.DTOCacheResolver;
 import ca.dgh.rest.demo.exception.DataNotFoundException;
+import ca.dgh.rest.demo.exporter.DataExportWriter;
+import ca.dgh.rest.demo.mapper.DTOMapper;
+import ca.dgh.rest.demo.mapper.ModelMapperDTOMapper;
 import ca.dgh.rest.demo.model.AbstractEntity;
 import ca.dgh.rest.demo.model.dto.AbstractDTO;
+import ca.dgh.rest.demo.model.dto.BatchDTO;
+import ca.dgh.rest.demo.model.dto.PageDTO;
+import ca.dgh.rest.demo.repository.DTOAwareRepository;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
-
-import static javax.management.timer.Timer.ONE_MINUTE;
+import java.util.stream.Stream;
 
 public abstract class AbstractDTOAwareService<S extends AbstractEntity, T extends AbstractDTO> {
+    /**
+     * The key under which the result of {@link #getAll()} is cached. Every other entry in the cache is keyed by id.
+     */
+    public static final String ALL_KEY = "all";
+
+    /**
+     * The name of the cache, relative to the cache of this service, holding results that can't be patched by id such as
+     * query results. This cache is cleared on every write.
+     */
+    public static final String DERIVED_CACHE = "derived";
+
+    /**
+     * The order of paged results. Ids are time-ordered, so this is also the order objects were created in.
+     */
+    private static final Sort BY_ID = Sort.by("id");
+
     /**
      * The repository that will be used in this class to interact with the persistence layer.
      */
-    JpaRepository<S, UUID> repository;
+    DTOAwareRepository<S> repository;
 
     /**
      * The model mapper that will be used to convert between the S ({@link AbstractEntity}) and
@@ -29,6 +72,13 @@ public abstract class AbstractDTOAwareService<S extends AbstractEntity, T extend
      */
     ModelMapper modelMapper;
 
+    /**
+     * Converts between the S ({@link AbstractEntity}) and T ({@link AbstractDTO}) objects. This uses the
+     * {@link ModelMapper} unless a {@link DTOMapper} for these types has been registered. It is only used by writes:
+     * reads are projected by the repository straight into T objects, without loading any entity.
+     */
+    DTOMapper<S, T> mapper;
+
     /**
      * The DTO class type, used by the {@link ModelMapper}
      */
@@ -39,6 +89,39 @@ public abstract class AbstractDTOAwareService<S extends AbstractEntity, T extend
      */
     Class<S> entityClassType;
 
+    /**
+     * The cache manager used to patch the cached result of {@link #getAll()} after a write. This is optional, without it
+     * nothing is patched.
+     */
+    CacheManager cacheManager;
+
+    /**
+     * The largest page a caller may ask for. Larger requests are cut down to this size.
+     */
+    int maxPageSize = 1000;
+
+    /**
+     * Serializes updates to the cached result of {@link #getAll()} so that concurrent writes don't lose each other's
+     * changes.
+     */
+    private final Object cachedListLock = new Object();
+
+    /**
+     * Held while a new {@link #contentVersion} is published, so that the collections it evicts can't be cached again
+     * under an older version.
+     */
+    private final Object contentVersionLock = new Object();
+
+    /**
+     * The version of the table last read by {@link #getContentVersion()}, or {@code null} before the first read.
+     */
+    private volatile String contentVersion;
+
+    /**
+     * When {@link #contentVersion} last changed, see {@link #getLastModified()}.
+     */
+    private volatile Instant lastModified = Instant.now();
+
     /**
      * This one argument constructor accepts a repository that will be used to work with the persistence layer.
      *
@@ -48,24 +131,104 @@ public abstract class AbstractDTOAwareService<S extends AbstractEntity, T extend
      * @param entityClassType the DTO class type, used by the {@link ModelMapper}
      * @param dtoClassType    the entity class type, used by the {@link ModelMapper}
      */
-    protected AbstractDTOAwareService(JpaRepository<S, UUID> repository, ModelMapper modelMapper,
+    protected AbstractDTOAwareService(DTOAwareRepository<S> repository, ModelMapper modelMapper,
                                       Class<S> entityClassType,
                                       Class<T> dtoClassType) {
         this.repository = repository;
         this.modelMapper = modelMapper;
         this.dtoClassType = dtoClassType;
         this.entityClassType = entityClassType;
+        this.mapper = new ModelMapperDTOMapper<>(modelMapper, entityClassType, dtoClassType);
     }
 
     /**
-     * Get all objects that are available in the persistence layer for the generic type.
+     * Get all objects that are available in the persistence layer for the generic type. This loads and caches the
+     * whole table, so large tables should be read with {@link #getPage(int, int)} or {@link #getPageAfter(String, int)}.
+     * Like every read of this class, it runs in a read-only transaction and selects the DTOs directly, so no entity is
+     * loaded into the persistence context and nothing is dirty checked or flushed.
      *
      * @return all objects of the generic type in the persistence layer.
      */
-    @Cacheable(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME)
+    @Cacheable(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, key = "'" + ALL_KEY + "'", sync = true)
+    @Transactional(readOnly = true)
     public List<T> getAll() {
-        return this.repository.findAll().stream()
-                .map(o -> modelMapper.map(o, dtoClassType)).toList();
+        return List.copyOf(repository.findAllProjectedBy(dtoClassType));
+    }
+
+    /**
+     * Get a page of objects by page number, ordered by id. This counts the objects in the table, and the deeper the page
+     * the more rows the database skips, so {@link #getPageAfter(String, int)} is preferred to go through a large table.
+     * Pages are cached until the next write.
+     *
+     * @param page the number of the page, starting at 0.
+     * @param size the maximum number of objects in the page, capped at {@link #maxPageSize}.
+     * @return the requested page.
+     */
+    @Cacheable(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, cacheNames = DERIVED_CACHE,
+            key = "'page:' + T(Math).max(#page, 0) + ':' + #root.target.pageSize(#size)", sync = true)
+    @Transactional(readOnly = true)
+    public PageDTO<T> getPage(int page, int size) {
+        Page<T> result = repository.findPageProjectedBy(PageRequest.of(Math.max(page, 0), pageSize(size), BY_ID),
+                dtoClassType);
+        PageDTO<T> pageDTO = new PageDTO<>();
+        pageDTO.setContent(List.copyOf(result.getContent()));
+        pageDTO.setSize(result.getSize());
+        pageDTO.setPage(result.getNumber());
+        pageDTO.setTotalElements(result.getTotalElements());
+        pageDTO.setTotalPages(result.getTotalPages());
+        return pageDTO;
+    }
+
+    /**
+     * Get a page of objects ordered by id, starting after the last object of the previous page. The position is kept
+     * in a continuation token rather than as an offset, so every page is an index seek however deep it is, and pages
+     * don't shift when objects are added or removed. Pages are cached until the next write.
+     *
+     * @param token the continuation token returned with the previous page, or {@code null} for the first page.
+     * @param size  the maximum number of objects in the page, capped at {@link #maxPageSize}.
+     * @return the requested page, with the token of the next page if there is one.
+     * @throws IllegalArgumentException when the token is invalid.
+     */
+    @Cacheable(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, cacheNames = DERIVED_CACHE,
+            key = "'after:' + #token + ':' + #root.target.pageSize(#size)", sync = true)
+    @Transactional(readOnly = true)
+    public PageDTO<T> getPageAfter(String token, int size) {
+        int pageSize = pageSize(size);
+        // Fetch one extra object to find out whether there is a next page without another query.
+        Pageable pageable = PageRequest.of(0, pageSize + 1, BY_ID);
+        List<T> result = token == null || token.isBlank()
+                ? repository.findAllProjectedBy(pageable, dtoClassType)
+                : repository.findProjectedByIdGreaterThan(ContinuationToken.decode(token), pageable, dtoClassType);
+        List<T> content = result.size() > pageSize ? result.subList(0, pageSize) : result;
+        PageDTO<T> pageDTO = new PageDTO<>();
+        pageDTO.setContent(List.copyOf(content));
+        pageDTO.setSize(pageSize);
+        if (result.size() > pageSize) {
+            pageDTO.setNextToken(ContinuationToken.encode(content.get(content.size() - 1).getId()));
+        }
+        return pageDTO;
+    }
+
+    /**
+     * Write every object in the persistence layer to the given writer, ordered by id. Objects are read from a database
+     * cursor straight into DTOs and written one at a time, so the persistence context doesn't grow with the table.
+     * Memory use is therefore the same whatever the size of the table. Nothing is cached.
+     *
+     * @param writer the writer receiving each object.
+     * @return the number of objects written.
+     * @throws IOException when the writer fails, for instance because the client went away.
+     */
+    @Transactional(readOnly = true)
+    public long exportAll(DataExportWriter<T> writer) throws IOException {
+        long count = 0;
+        try (Stream<T> objects = repository.streamProjectedByOrderByIdAsc(dtoClassType)) {
+            Iterator<T> iterator = objects.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
@@ -74,14 +237,51 @@ public abstract class AbstractDTOAwareService<S extends AbstractEntity, T extend
      * @param id the ID of the target object.
      * @return an {@link Optional} of our generic type.
      */
-    @Cacheable(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME)
+    @Cacheable(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, sync = true)
+    @Transactional(readOnly = true)
     public Optional<T> getById(UUID id) {
-        Optional<S> result = this.repository.findById(id);
-        if (result.isPresent()) {
-            return Optional.of(this.modelMapper.map(result, dtoClassType));
-        } else {
-            return Optional.empty();
+        return repository.findProjectedById(id, dtoClassType);
+    }
+
+    /**
+     * Get the objects with the given ids. Objects in the cache are served from it, and the others are fetched with as
+     * few {@code IN} queries as {@link DTOAwareRepository#MAX_IN_PARAMETERS} allows, then cached. Ids with no matching
+     * object are reported in the result rather than failing the batch.
+     *
+     * @param ids the ids of the objects to get. Duplicates are ignored.
+     * @return the objects found and the ids that weren't, both in the order the ids were given.
+     * @throws IllegalArgumentException when more than {@link #maxPageSize} ids are given.
+     */
+    @Transactional(readOnly = true)
+    public BatchDTO<T> getByIds(Collection<UUID> ids) {
+        Set<UUID> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > maxPageSize) {
+            throw new IllegalArgumentException("At most " + maxPageSize + " ids can be fetched at once");
+        }
+        Map<UUID, T> found = new HashMap<>(distinctIds.size() * 2);
+        List<UUID> misses = new ArrayList<>();
+        Cache cache = getCache();
+        for (UUID id : distinctIds) {
+            T cachedObject = cache == null ? null : cache.get(id, dtoClassType);
+            if (cachedObject != null) {
+                found.put(id, cachedObject);
+            } else {
+                misses.add(id);
+            }
         }
+        for (int from = 0; from < misses.size(); from += DTOAwareRepository.MAX_IN_PARAMETERS) {
+            List<UUID> chunk = misses.subList(from, Math.min(from + DTOAwareRepository.MAX_IN_PARAMETERS, misses.size()));
+            for (T loadedObject : repository.findProjectedByIdIn(chunk, dtoClassType)) {
+                found.put(loadedObject.getId(), loadedObject);
+                if (cache != null) {
+                    cache.put(loadedObject.getId(), loadedObject);
+                }
+            }
+        }
+        BatchDTO<T> batch = new BatchDTO<>();
+        batch.setContent(distinctIds.stream().map(found::get).filter(Objects::nonNull).toList());
+        batch.setMissingIds(distinctIds.stream().filter(id -> !found.containsKey(id)).toList());
+        return batch;
     }
 
     /**
@@ -90,48 +290,285 @@ public abstract class AbstractDTOAwareService<S extends AbstractEntity, T extend
      * @param newObject the new object to persist.
      * @return the newly persisted object.
      */
-    @CacheEvict(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, allEntries = true)
+    @Caching(put = @CachePut(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, key = "#result.id"),
+            evict = @CacheEvict(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, cacheNames = DERIVED_CACHE,
+                    allEntries = true))
     public T create(T newObject) {
-        S mappedEntity = repository.save(modelMapper.map(newObject, entityClassType));
-        return modelMapper.map(mappedEntity, dtoClassType);
+        S mappedEntity = repository.save(mapper.toEntity(newObject));
+        T createdObject = mapper.toDTO(mappedEntity);
+        patchCachedList(createdObject.getId(), createdObject);
+        return createdObject;
     }
 
     /**
-     * Update a given object that exists in the database.
+     * Create several objects in the persistence layer at once. The inserts are sent to the database in JDBC batches,
+     * the size of which is set by {@code spring.jpa.properties.hibernate.jdbc.batch_size}.
+     *
+     * @param newObjects the new objects to persist, at most {@link #maxPageSize}.
+     * @return the newly persisted objects, in the order they were given.
+     * @throws IllegalArgumentException when more than {@link #maxPageSize} objects are given.
+     */
+    @CacheEvict(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, cacheNames = DERIVED_CACHE, allEntries = true)
+    public List<T> createAll(List<T> newObjects) {
+        if (newObjects.size() > maxPageSize) {
+            throw new IllegalArgumentException("At most " + maxPageSize + " objects can be created at once");
+        }
+        List<S> mappedEntities = repository.saveAll(newObjects.stream()
+                .map(mapper::toEntity).toList());
+        List<T> createdObjects = mappedEntities.stream().map(mapper::toDTO).toList();
+        patchCachedList(createdObjects);
+        return createdObjects;
+    }
+
+    /**
+     * Update a given object that exists in the database. The update is a single statement matching both the id and the
+     * version of the object, so nothing is read first. If the object doesn't carry a version, its current version is
+     * looked up and the update overwrites whatever is there.
      *
      * @param updatedObject Object containing new values to be persisted.
-     * @return the object that has been updated.
+     * @return the object that has been updated, with its new version.
+     * @throws DataNotFoundException              when the object doesn't exist.
+     * @throws OptimisticLockingFailureException when the object has been changed since it was read.
      */
-    @CacheEvict(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, allEntries = true)
+    @Caching(put = @CachePut(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, key = "#result.id"),
+            evict = @CacheEvict(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, cacheNames = DERIVED_CACHE,
+                    allEntries = true))
     public T update(T updatedObject) throws DataNotFoundException {
-        objectExistsInRepository(updatedObject.getId(), repository);
-        S mappedEntity = repository.save(modelMapper.map(updatedObject, entityClassType));
-        return modelMapper.map(mappedEntity, dtoClassType);
+        if (updatedObject.getVersion() == null) {
+            updatedObject.setVersion(repository.findVersionById(updatedObject.getId())
+                    .orElseThrow(DataNotFoundException::new));
+        }
+        S mappedEntity;
+        try {
+            mappedEntity = repository.updateExisting(mapper.toEntity(updatedObject));
+        } catch (OptimisticLockingFailureException e) {
+            // No row matched: only on this path is it worth finding out whether the object is gone or was changed.
+            // This is asked of the primary, like the update itself, since the replica may not have the object yet.
+            if (repository.findVersionById(updatedObject.getId()).isEmpty()) {
+                throw new DataNotFoundException();
+            }
+            throw e;
+        }
+        T savedObject = mapper.toDTO(mappedEntity);
+        patchCachedList(savedObject.getId(), savedObject);
+        return savedObject;
     }
 
     /**
-     * Delete the object from the persistence layer with the given id.
+     * Delete the object from the persistence layer with the given id, with a single statement.
      *
      * @param id the id of the object to delete.
      * @throws {@link DataNotFoundException} when an object cannot be found.
      */
-    @CacheEvict(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, allEntries = true)
+    @Caching(evict = {@CacheEvict(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME),
+            @CacheEvict(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, cacheNames = DERIVED_CACHE,
+                    allEntries = true)})
     public void delete(UUID id) throws DataNotFoundException {
-        objectExistsInRepository(id, repository);
-        repository.deleteById(id);
+        if (repository.removeById(id) == 0) {
+            throw new DataNotFoundException();
+        }
+        patchCachedList(id, null);
+    }
+
+    /**
+     * Replace the {@link ModelMapper} with a mapper written or generated for these types, which avoids reflection.
+     *
+     * @param mapper the mapper converting between the S ({@link AbstractEntity}) and T ({@link AbstractDTO}) objects.
+     */
+    @Autowired(required = false)
+    public void setMapper(DTOMapper<S, T> mapper) {
+        this.mapper = mapper;
     }
 
     /**
-     * Schedule the eviction of all entries from this cache.
+     * @return the mapper converting between the S ({@link AbstractEntity}) and T ({@link AbstractDTO}) objects.
      */
-    @Scheduled(fixedRate = 30 * ONE_MINUTE)
-    @CacheEvict(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, allEntries = true)
+    public DTOMapper<S, T> getMapper() {
+        return mapper;
+    }
+
+    /**
+     * @param maxPageSize the largest page a caller may ask for.
+     */
+    @Autowired
+    public void setMaxPageSize(@Value("${demo.paging.max-size:1000}") int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Bring a page size within the bounds of this service. Pages are cached under the size they are read with, so that
+     * sizes above the maximum share the entries of the maximum.
+     *
+     * @param size the page size asked for.
+     * @return the page size asked for, brought within 1 and {@link #maxPageSize}.
+     */
+    public int pageSize(int size) {
+        return Math.min(Math.max(size, 1), maxPageSize);
+    }
+
+    /**
+     * Get the name of the cache used by this service. Each service has its own cache, the settings of which can be
+     * found under {@code demo.cache.caches.<name>}.
+     *
+     * @return the name of the cache used by this service.
+     */
+    public String getCacheName() {
+        return entityClassType.getSimpleName().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Whether objects read by id and the result of {@link #getAll()} are kept in the cache of this service. Services
+     * that serve those reads from their own copy of the data turn this off, so that the cache can't hand out an older
+     * copy. The derived cache is used either way.
+     *
+     * @return {@code true} unless a subclass serves reads by id from elsewhere.
+     */
+    public boolean isObjectCacheEnabled() {
+        return true;
+    }
+
+    /**
+     * @param cacheManager the cache manager used to patch the cached result of {@link #getAll()} after a write.
+     */
+    @Autowired(required = false)
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Evict all entries from this cache and from its derived cache. This is called by {@link CacheMaintenanceService}
+     * for caches that don't refresh ahead, and after writes made behind the back of this service.
+     */
+    @Caching(evict = {@CacheEvict(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, allEntries = true),
+            @CacheEvict(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, cacheNames = DERIVED_CACHE,
+                    allEntries = true)})
     public void clearCache() {
     }
 
-    private void objectExistsInRepository(UUID id, JpaRepository<S, UUID> repository) throws DataNotFoundException {
-        if (repository.findById(id).isEmpty()) {
-            throw new DataNotFoundException();
+    /**
+     * Evict the cached result of {@link #getAll()} and every entry of the derived cache, after objects have been added
+     * behind the back of this service, for instance by a bulk import. Objects cached by id are kept, since adding
+     * objects doesn't change them.
+     */
+    @Caching(evict = {@CacheEvict(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, key = "'" + ALL_KEY + "'"),
+            @CacheEvict(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, cacheNames = DERIVED_CACHE,
+                    allEntries = true)})
+    public void evictCollections() {
+    }
+
+    /**
+     * Get a value that changes whenever the objects of this service change. It is used to validate HTTP conditional
+     * requests on whole collections without reading them. It is read from the table itself with a single aggregate
+     * query, see {@link DTOAwareRepository#findTableVersion()}, so it also follows writes made by other instances.
+     * When it has changed since the last call, the cached collections are evicted before the new version is returned,
+     * so that they can't be sent under it.
+     *
+     * @return the current version of the objects of this service.
+     */
+    public String getContentVersion() {
+        DTOAwareRepository.TableVersion table = repository.findTableVersion();
+        String version = table.getRows() + "-" + table.getLastId() + "-" + table.getVersions();
+        if (!version.equals(contentVersion)) {
+            synchronized (contentVersionLock) {
+                if (!version.equals(contentVersion)) {
+                    Cache cache = getCache();
+                    if (cache != null) {
+                        cache.evict(ALL_KEY);
+                    }
+                    clearDerivedCache();
+                    lastModified = Instant.now();
+                    contentVersion = version;
+                }
+            }
+        }
+        return version;
+    }
+
+    /**
+     * Get a value that changes whenever the given object changes. It is used to validate HTTP conditional requests on
+     * a single object.
+     *
+     * @param object the object to get the version of.
+     * @return the version of the object, or {@code null} if the object has no version.
+     */
+    public String getObjectVersion(T object) {
+        return object.getVersion() == null ? null : object.getId() + ":" + object.getVersion();
+    }
+
+    /**
+     * @return when the objects of this service were last seen to change by {@link #getContentVersion()}.
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Replace, add or remove a single object in the cached result of {@link #getAll()}, if that result is cached.
+     *
+     * @param id     the id of the object that has been written.
+     * @param object the object as it now is in the persistence layer, or {@code null} if it has been deleted.
+     */
+    void patchCachedList(UUID id, T object) {
+        patchCachedList(Set.of(id), object == null ? List.of() : List.of(object));
+    }
+
+    /**
+     * Put the given objects in the cache by id and add them to the cached result of {@link #getAll()}, if that result
+     * is cached.
+     *
+     * @param objects the objects that have been written.
+     */
+    void patchCachedList(List<T> objects) {
+        Cache cache = getCache();
+        if (cache == null) {
+            return;
         }
+        objects.forEach(o -> cache.put(o.getId(), o));
+        patchCachedList(objects.stream().map(AbstractDTO::getId).collect(Collectors.toSet()), objects);
+    }
+
+    /**
+     * Replace the objects with the given ids in the cached result of {@link #getAll()}, if that result is cached. The
+     * cached list is never modified in place, a patched copy replaces it.
+     *
+     * @param ids     the ids of the objects that have been written.
+     * @param objects the objects as they now are in the persistence layer. Ids without an object have been deleted.
+     */
+    @SuppressWarnings("unchecked")
+    private void patchCachedList(Set<UUID> ids, List<T> objects) {
+        Cache cache = getCache();
+        if (cache == null) {
+            return;
+        }
+        synchronized (cachedListLock) {
+            List<T> cachedList = cache.get(ALL_KEY, List.class);
+            if (cachedList == null) {
+                return;
+            }
+            List<T> patchedList = cachedList.stream()
+                    .filter(o -> !ids.contains(o.getId()))
+                    .collect(Collectors.toCollection(ArrayList::new));
+            patchedList.addAll(objects);
+            cache.put(ALL_KEY, List.copyOf(patchedList));
+        }
+    }
+
+    /**
+     * Evict every entry from the derived cache of this service, for subclasses that learn about writes other than
+     * through the write methods of this class.
+     */
+    protected void clearDerivedCache() {
+        Cache cache = cacheManager == null ? null
+                : cacheManager.getCache(DTOCacheResolver.getCacheName(getCacheName(), DERIVED_CACHE));
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return the cache of this service, or {@code null} if there is no cache manager or the cache is disabled.
+     */
+    private Cache getCache() {
+        return cacheManager == null || !isObjectCacheEnabled() ? null : cacheManager.getCache(getCacheName());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,164 @@
+package ca.dgh.rest.demo.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts how often each object is read by id, per cache, so that {@link CacheWarmUpService} knows which objects are
+ * worth loading before any request asks for them. The counts can be saved to a file and loaded back, so they survive a
+ * restart.
+ * <p />
+ * The number of objects counted per cache is bounded. When a new object is read once the bound is reached, every count
+ * is halved and the objects whose count drops to zero are forgotten, which also lets recent reads outweigh old ones.
+ */
+public class AccessFrequencyRecorder {
+
+    /**
+     * Reads made on the current thread are not counted while this is set, see {@link #withoutRecording(Runnable)}.
+     */
+    private static final ThreadLocal<Boolean> PAUSED = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * The maximum number of objects counted per cache.
+     */
+    private final int capacity;
+
+    /**
+     * Reads and writes the snapshot files.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The read count of every object, keyed by cache name and then by id.
+     */
+    private final Map<String, Map<UUID, AtomicLong>> counts = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacity     the maximum number of objects counted per cache.
+     * @param objectMapper reads and writes the snapshot files.
+     */
+    public AccessFrequencyRecorder(int capacity, ObjectMapper objectMapper) {
+        this.capacity = capacity;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Count a read of the given object.
+     *
+     * @param cacheName the name of the cache the object is held in.
+     * @param id        the id of the object.
+     */
+    public void record(String cacheName, UUID id) {
+        if (PAUSED.get()) {
+            return;
+        }
+        Map<UUID, AtomicLong> cacheCounts = counts.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>());
+        AtomicLong count = cacheCounts.get(id);
+        if (count == null) {
+            if (cacheCounts.size() >= capacity && !decayIfFull(cacheCounts)) {
+                return;
+            }
+            count = cacheCounts.computeIfAbsent(id, key -> new AtomicLong());
+        }
+        count.incrementAndGet();
+    }
+
+    /**
+     * @param cacheName the name of the cache.
+     * @param limit     the maximum number of ids returned.
+     * @return the ids of the objects of the cache read most often, most read first.
+     */
+    public List<UUID> getHottest(String cacheName, int limit) {
+        return counts.getOrDefault(cacheName, Map.of()).entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<UUID, AtomicLong> entry) -> entry.getValue().get()).reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Run the given task without counting the reads it makes on the current thread, so that loading objects into a
+     * cache doesn't make them look more popular than they are.
+     *
+     * @param task the task to run.
+     */
+    public void withoutRecording(Runnable task) {
+        PAUSED.set(true);
+        try {
+            task.run();
+        } finally {
+            PAUSED.remove();
+        }
+    }
+
+    /**
+     * Save the counts to the given file. The file is replaced in a single step, so a crash while saving leaves the
+     * previous counts in place.
+     *
+     * @param file the file to save the counts to.
+     * @throws IOException when the file can't be written.
+     */
+    public void save(Path file) throws IOException {
+        Map<String, Map<UUID, Long>> snapshot = new LinkedHashMap<>();
+        counts.forEach((cacheName, cacheCounts) -> {
+            Map<UUID, Long> values = new LinkedHashMap<>();
+            cacheCounts.forEach((id, count) -> values.put(id, count.get()));
+            snapshot.put(cacheName, values);
+        });
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            objectMapper.writeValue(temporary.toFile(), snapshot);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Add the counts saved in the given file to the current counts.
+     *
+     * @param file the file the counts were saved to.
+     * @throws IOException when the file can't be read.
+     */
+    public void load(Path file) throws IOException {
+        Map<String, Map<UUID, Long>> snapshot = objectMapper.readValue(file.toFile(), new TypeReference<>() {
+        });
+        snapshot.forEach((cacheName, values) -> {
+            Map<UUID, AtomicLong> cacheCounts = counts.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>());
+            values.entrySet().stream()
+                    .sorted(Map.Entry.<UUID, Long>comparingByValue().reversed())
+                    .limit(Math.max(capacity - cacheCounts.size(), 0))
+                    .forEach(entry -> cacheCounts.computeIfAbsent(entry.getKey(), id -> new AtomicLong())
+                            .addAndGet(entry.getValue()));
+        });
+    }
+
+    /**
+     * Halve every count of a cache and forget the objects whose count drops to zero, unless another thread has already
+     * made room.
+     *
+     * @param cacheCounts the counts of the cache.
+     * @return whether there is room for another object.
+     */
+    private synchronized boolean decayIfFull(Map<UUID, AtomicLong> cacheCounts) {
+        if (cacheCounts.size() >= capacity) {
+            cacheCounts.values().forEach(count -> count.getAndUpdate(value -> value / 2));
+            cacheCounts.values().removeIf(count -> count.get() == 0);
+        }
+        return cacheCounts.size() < capacity;
+    }
+}
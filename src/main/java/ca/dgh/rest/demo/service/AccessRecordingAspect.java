@@ -0,0 +1,45 @@
+package ca.dgh.rest.demo.service;
+
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Counts every object found by {@link AbstractDTOAwareService#getById(UUID)} with the {@link AccessFrequencyRecorder}.
+ * This runs outside of the caching interceptor, so cache hits are counted as well as misses.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class AccessRecordingAspect {
+
+    /**
+     * Counts the reads.
+     */
+    private final AccessFrequencyRecorder recorder;
+
+    /**
+     * @param recorder counts the reads.
+     */
+    public AccessRecordingAspect(AccessFrequencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Count a read of the object with the given id, if it was found.
+     *
+     * @param service the service the object was read from.
+     * @param id      the id of the object.
+     * @param result  the object found, if any.
+     */
+    @AfterReturning(pointcut = "execution(public * ca.dgh.rest.demo.service.AbstractDTOAwareService+.getById(java.util.UUID))"
+            + " && target(service) && args(id)", returning = "result", argNames = "service,id,result")
+    public void recordRead(AbstractDTOAwareService<?, ?> service, UUID id, Optional<?> result) {
+        if (result.isPresent()) {
+            recorder.record(service.getCacheName(), id);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ca.dgh.rest.demo.service;
+
+import ca.dgh.rest.demo.configuration.DTOCacheProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class periodically clears the caches of every {@link AbstractDTOAwareService} that doesn't refresh ahead. Caches
+ * that refresh ahead keep their entries fresh by reloading them in the background, so clearing them would only cause
+ * a burst of cold reads against the database. The caches that are cleared are warmed up again by the
+ * {@link CacheWarmUpService} straight away.
+ */
+@Service
+public class CacheMaintenanceService {
+
+    /**
+     * Every service whose cache is maintained by this class.
+     */
+    private final List<AbstractDTOAwareService<?, ?>> services;
+
+    /**
+     * The settings of every cache.
+     */
+    private final DTOCacheProperties cacheProperties;
+
+    /**
+     * Loads the objects read most often back into the caches that have been cleared.
+     */
+    private final CacheWarmUpService cacheWarmUpService;
+
+    /**
+     * @param services           every service whose cache is maintained by this class.
+     * @param cacheProperties    the settings of every cache.
+     * @param cacheWarmUpService loads the objects read most often back into the caches that have been cleared.
+     */
+    public CacheMaintenanceService(List<AbstractDTOAwareService<?, ?>> services, DTOCacheProperties cacheProperties,
+                                   CacheWarmUpService cacheWarmUpService) {
+        this.services = services;
+        this.cacheProperties = cacheProperties;
+        this.cacheWarmUpService = cacheWarmUpService;
+    }
+
+    /**
+     * Schedule the eviction of all entries from the caches that don't refresh ahead, followed by a warm-up of those
+     * caches in the background.
+     */
+    @Scheduled(fixedRateString = "${demo.cache.clear-interval:PT30M}", initialDelayString = "${demo.cache.clear-interval:PT30M}")
+    public void clearCaches() {
+        List<AbstractDTOAwareService<?, ?>> cleared = new ArrayList<>();
+        for (AbstractDTOAwareService<?, ?> service : services) {
+            if (!cacheProperties.getSpec(service.getCacheName()).getRefreshAhead()) {
+                service.clearCache();
+                cleared.add(service);
+            }
+        }
+        cacheWarmUpService.warmUp(cleared);
+    }
+}
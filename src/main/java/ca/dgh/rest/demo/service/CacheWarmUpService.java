@@ -0,0 +1,196 @@
+package ca.dgh.rest.demo.service;
+
+import ca.dgh.rest.demo.configuration.DTOCacheProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the objects read most often into the cache of every {@link AbstractDTOAwareService}, so that the first
+ * requests after a start or after a cache has been cleared don't all miss and pile onto the database. Which objects are
+ * read most often is counted by the {@link AccessFrequencyRecorder} and saved to a file, so a new start loads what the
+ * previous one was asked for.
+ * <p />
+ * On startup this runs as an {@link ApplicationRunner}, which Spring Boot waits for before it reports the application
+ * ready to accept traffic. Startup is therefore delayed by the warm-up, for up to
+ * {@link DTOCacheProperties.WarmUp#getTimeout()}, which keeps cold instances out of the load balancer. A timeout of
+ * zero runs the startup warm-up in the background instead. After the caches are cleared on a schedule,
+ * {@link CacheMaintenanceService} starts a warm-up that always runs in the background.
+ * <p />
+ * Objects are loaded on a few threads, and no faster than {@link DTOCacheProperties.WarmUp#getRate()} per second, so
+ * that the warm-up can't overload the database itself.
+ */
+@Service
+@Slf4j
+public class CacheWarmUpService implements ApplicationRunner {
+
+    /**
+     * Every service whose cache is warmed up.
+     */
+    private final List<AbstractDTOAwareService<?, ?>> services;
+
+    /**
+     * Knows which objects are read most often.
+     */
+    private final AccessFrequencyRecorder recorder;
+
+    /**
+     * The settings of the warm-up.
+     */
+    private final DTOCacheProperties.WarmUp properties;
+
+    /**
+     * Loads the objects.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The earliest time, in {@link System#nanoTime()}, at which the next object may be loaded.
+     */
+    private final AtomicLong nextLoad = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param services        every service whose cache is warmed up.
+     * @param recorder        knows which objects are read most often.
+     * @param cacheProperties the settings of every cache, including the warm-up.
+     */
+    public CacheWarmUpService(List<AbstractDTOAwareService<?, ?>> services, AccessFrequencyRecorder recorder,
+                              DTOCacheProperties cacheProperties) {
+        this.services = services;
+        this.recorder = recorder;
+        this.properties = cacheProperties.getWarmUp();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-warm-up-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(properties.getParallelism(), properties.getParallelism(), 0,
+                TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    }
+
+    /**
+     * Load the saved read counts and warm up every cache. This blocks the start of the application until the warm-up
+     * has finished or {@link DTOCacheProperties.WarmUp#getTimeout()} has passed, after which the remaining loads are
+     * cancelled. With a timeout of zero it returns straight away and the warm-up carries on in the background.
+     *
+     * @param args the arguments the application was started with.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        Path snapshotFile = properties.getSnapshotFile();
+        if (snapshotFile != null && Files.isReadable(snapshotFile)) {
+            try {
+                recorder.load(snapshotFile);
+            } catch (IOException e) {
+                // A damaged snapshot only costs a cold start, it mustn't prevent the start.
+                log.warn("Could not load the read counts from {}, the caches will start cold", snapshotFile, e);
+            }
+        }
+        List<Future<?>> loads = warmUp(services);
+        if (properties.getTimeout().isZero()) {
+            return;
+        }
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        try {
+            for (Future<?> load : loads) {
+                try {
+                    load.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    // One failed load only leaves its objects cold, the others carry on.
+                    log.warn("A cache warm-up load failed, its objects are left to the first requests", e.getCause());
+                }
+            }
+        } catch (TimeoutException e) {
+            log.warn("The cache warm-up did not finish within {}, the remaining objects are left to the first requests",
+                    properties.getTimeout());
+            loads.forEach(load -> load.cancel(true));
+        } catch (InterruptedException e) {
+            loads.forEach(load -> load.cancel(true));
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Start loading the objects read most often into the caches of the given services.
+     *
+     * @param services the services whose caches are warmed up.
+     * @return the loads, which complete as the objects are loaded.
+     */
+    public List<Future<?>> warmUp(List<? extends AbstractDTOAwareService<?, ?>> services) {
+        List<Future<?>> loads = new ArrayList<>();
+        if (!properties.isEnabled()) {
+            return loads;
+        }
+        for (AbstractDTOAwareService<?, ?> service : services) {
+            for (UUID id : recorder.getHottest(service.getCacheName(), properties.getHottestIds())) {
+                loads.add(executor.submit(() -> load(service, id)));
+            }
+        }
+        return loads;
+    }
+
+    /**
+     * Save the read counts, so that the next start knows which objects to load.
+     */
+    @Scheduled(fixedRateString = "${demo.cache.warm-up.snapshot-interval:PT5M}",
+            initialDelayString = "${demo.cache.warm-up.snapshot-interval:PT5M}")
+    public void saveSnapshot() {
+        if (properties.getSnapshotFile() != null) {
+            try {
+                recorder.save(properties.getSnapshotFile());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Stop the warm-up and save the read counts a last time.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        saveSnapshot();
+    }
+
+    /**
+     * Load an object into the cache of its service, once the rate allows it. An object that fails to load is left to
+     * the first request for it.
+     *
+     * @param service the service holding the object.
+     * @param id      the id of the object.
+     */
+    private void load(AbstractDTOAwareService<?, ?> service, UUID id) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(properties.getRate(), 1);
+        long now = System.nanoTime();
+        long slot = Math.max(nextLoad.getAndAccumulate(now, (next, current) -> Math.max(next, current) + interval), now);
+        try {
+            TimeUnit.NANOSECONDS.sleep(slot - now);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            recorder.withoutRecording(() -> service.getById(id));
+        } catch (RuntimeException e) {
+            // The warm-up is only an optimization, the first request for the object will report the error.
+            log.warn("Could not load {} {} into its cache during the warm-up", service.getCacheName(), id, e);
+        }
+    }
+}
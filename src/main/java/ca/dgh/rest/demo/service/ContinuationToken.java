@@ -0,0 +1,40 @@
+package ca.dgh.rest.demo.service;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Converts between the id of the last object of a page and the opaque token clients pass back to get the next page.
+ * The token is the URL-safe Base64 encoding of the id, so it can be used as a query parameter as is.
+ */
+public final class ContinuationToken {
+
+    private ContinuationToken() {
+    }
+
+    /**
+     * @param id the id of the last object of a page.
+     * @return the token of the next page.
+     */
+    public static String encode(UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @param token the token of a page.
+     * @return the id of the last object of the previous page.
+     * @throws IllegalArgumentException when the token is not one created by {@link #encode(UUID)}.
+     */
+    public static UUID decode(String token) {
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        if (bytes.length != 16) {
+            throw new IllegalArgumentException("Invalid continuation token: " + token);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -1,22 +1,41 @@
 package ca.dgh.rest.demo.service;
 
-import ca.dgh.rest.demo.configuration.CachingConfiguration;
+import ca.dgh.rest.demo.exception.DataNotFoundException;
+import ca.dgh.rest.demo.lookup.LookupTable;
+import ca.dgh.rest.demo.lookup.SearchKeyNormalizer;
 import ca.dgh.rest.demo.model.Province;
+import ca.dgh.rest.demo.model.dto.BatchDTO;
 import ca.dgh.rest.demo.model.dto.ProvinceDTO;
 import ca.dgh.rest.demo.repository.ProvinceRepository;
+import jakarta.annotation.PostConstruct;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-
-import static javax.management.timer.Timer.ONE_MINUTE;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * This class extends a {@link AbstractDTOAwareService} and provides access to all {@link Province} objects.
+ * <p />
+ * Provinces are a small reference table, so reads are served from an in-memory {@link LookupTable}. The object cache
+ * is turned off, since the annotations inherited by {@link #getAll()} and {@link #getById(UUID)} would otherwise keep
+ * an older copy of the table in it. The table is reloaded after every write made through this service and on a
+ * schedule, to pick up writes made by other instances.
  */
 @Service
 public class ProvinceService extends AbstractDTOAwareService<Province, ProvinceDTO> {
@@ -26,37 +45,270 @@ public class ProvinceService extends AbstractDTOAwareService<Province, ProvinceD
      */
     ProvinceRepository provinceRepository;
 
+    /**
+     * The in-memory copy of all provinces.
+     */
+    private final LookupTable<ProvinceDTO> lookupTable;
+
+    /**
+     * Held while the lookup table is reloaded and {@link #contentVersion} is updated, so that concurrent reloads
+     * publish their versions in order.
+     */
+    private final Object reloadLock = new Object();
+
+    /**
+     * A hash of the id and version of every province in the lookup table, see {@link #getContentVersion()}, or
+     * {@code null} until the table has been loaded.
+     */
+    private volatile String contentVersion;
+
+    /**
+     * When {@link #contentVersion} last changed.
+     */
+    private volatile Instant lastModified = Instant.now();
+
     /**
      * A one argument constructor that requires a repository that manages {@link Province}.
      *
      * @param repository        a repository that manages {@link Province}
      * @param lookupModelMapper the {@link ModelMapper} that will convert between the {@link Province} and {@link ProvinceDTO} classes.
+     *                          It is only built on first use, which never comes when the generated mapper is used.
      */
     public ProvinceService(ProvinceRepository repository,
-                           @Qualifier("modelMapper") ModelMapper lookupModelMapper) {
+                           @Qualifier("modelMapper") @Lazy ModelMapper lookupModelMapper) {
         super(repository, lookupModelMapper, Province.class, ProvinceDTO.class);
         this.provinceRepository = repository;
+        this.lookupTable = new LookupTable<>(this::loadAll);
     }
 
     /**
-     * Get a province by a given name. To make life easier, we actually attempt to match both French and English names.
+     * Load the lookup table when the application starts, so the first request doesn't have to.
+     */
+    @PostConstruct
+    public void loadLookupTable() {
+        reload();
+    }
+
+    /**
+     * Schedule a reload of the lookup table to pick up writes made by other instances of this application.
+     */
+    @Scheduled(fixedRateString = "${demo.lookup.reload-interval:PT5M}", initialDelayString = "${demo.lookup.reload-interval:PT5M}")
+    public void reloadLookupTable() {
+        reload();
+    }
+
+    /**
+     * @return {@code false}, provinces are read from the lookup table.
+     */
+    @Override
+    public boolean isObjectCacheEnabled() {
+        return false;
+    }
+
+    /**
+     * Get a hash of the id and version of every province in the lookup table. Unlike the version of other services, it
+     * also changes when a reload of the table picks up writes made by other instances, and it is the same on every
+     * instance holding the same provinces.
      * <p />
-     * Note that this has its own caching logic and copies the inherited eviction logic.
+     * Every response sent with this version must be at least as recent as the table it was computed from. The table
+     * itself is swapped in before the version changes, and pages cached in the derived cache are evicted before it
+     * changes, see {@link #reloadLookupTable()}. A response can therefore be newer than its ETag, which only costs the client a
+     * full response next time, but never older.
+     *
+     * @return the current version of the provinces.
+     */
+    @Override
+    public String getContentVersion() {
+        String version = contentVersion;
+        if (version == null) {
+            synchronized (reloadLock) {
+                if (contentVersion == null) {
+                    contentVersion = hash(lookupTable.getAll());
+                }
+                version = contentVersion;
+            }
+        }
+        return version;
+    }
+
+    /**
+     * @return when the provinces in the lookup table last changed, as far as this instance knows.
+     */
+    @Override
+    public Instant getLastModified() {
+        getContentVersion();
+        return lastModified;
+    }
+
+    /**
+     * Get all provinces from the lookup table.
+     *
+     * @return all provinces.
+     */
+    @Override
+    public List<ProvinceDTO> getAll() {
+        return lookupTable.getAll();
+    }
+
+    /**
+     * Get a province from the lookup table. Provinces that are not in the table, for instance because they have just
+     * been created by another instance, are looked up in the persistence layer.
+     *
+     * @param id the ID of the target object.
+     * @return the province with the given id.
+     */
+    @Override
+    public Optional<ProvinceDTO> getById(UUID id) {
+        Optional<ProvinceDTO> province = lookupTable.getById(id);
+        if (province.isPresent()) {
+            return province;
+        }
+        return provinceRepository.findProjectedById(id, ProvinceDTO.class);
+    }
+
+    /**
+     * Get the provinces with the given ids from the lookup table. Provinces that are not in the table are looked up in
+     * the persistence layer.
+     *
+     * @param ids the ids of the provinces to get. Duplicates are ignored.
+     * @return the provinces found and the ids that weren't, both in the order the ids were given.
+     */
+    @Override
+    public BatchDTO<ProvinceDTO> getByIds(Collection<UUID> ids) {
+        Set<UUID> distinctIds = new LinkedHashSet<>(ids);
+        List<UUID> misses = distinctIds.stream().filter(id -> lookupTable.getById(id).isEmpty()).toList();
+        Map<UUID, ProvinceDTO> loaded = misses.isEmpty() ? Map.of() : super.getByIds(misses).getContent().stream()
+                .collect(Collectors.toMap(ProvinceDTO::getId, Function.identity()));
+        BatchDTO<ProvinceDTO> batch = new BatchDTO<>();
+        batch.setContent(distinctIds.stream()
+                .map(id -> lookupTable.getById(id).orElseGet(() -> loaded.get(id)))
+                .filter(Objects::nonNull).toList());
+        batch.setMissingIds(misses.stream().filter(id -> !loaded.containsKey(id)).toList());
+        return batch;
+    }
+
+    /**
+     * Get a province by a given name. To make life easier, we actually attempt to match both French and English names.
+     * The name is matched regardless of case and accents, so "Quebec" finds "Québec". Names that are not in the lookup
+     * table are looked up in the persistence layer through the indexed search key columns.
+     *
      * @param name the name fo the province to retrieve.
-     * @return the {@link Province} object that matches the given province name.
+     * @return the {@link ProvinceDTO} object that matches the given province name.
+     */
+    public Optional<ProvinceDTO> getProvinceByName(String name) {
+        Optional<ProvinceDTO> province = lookupTable.getByName(name);
+        if (province.isPresent() || name == null) {
+            return province;
+        }
+        String searchKey = SearchKeyNormalizer.normalize(name);
+        return provinceRepository.findFirstByNameEnKey(searchKey, ProvinceDTO.class)
+                .or(() -> provinceRepository.findFirstByNameFrKey(searchKey, ProvinceDTO.class));
+    }
+
+    /**
+     * Get the provinces whose English or French name starts with the given prefix, regardless of case and accents.
+     * This is served entirely from the lookup table and is meant for typeahead searches.
+     *
+     * @param prefix the start of the name.
+     * @param limit  the maximum number of provinces to return.
+     * @return the matching provinces ordered by name.
      */
-    @Cacheable(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME)
-    public Optional<Province> getProvinceByName(String name) {
-        return this.provinceRepository.findOneProvinceByNameEnIgnoreCaseOrNameFrIgnoreCase(name,name);
+    public List<ProvinceDTO> getProvincesByNamePrefix(String prefix, int limit) {
+        return lookupTable.getByNamePrefix(prefix, limit);
     }
 
     /**
-     * Schedule the eviction of all entries from this cache.
+     * Get a province by its code, regardless of case.
+     *
+     * @param code the code of the province to retrieve, for example {@code NS}.
+     * @return the {@link ProvinceDTO} object that matches the given code.
+     */
+    public Optional<ProvinceDTO> getProvinceByCode(String code) {
+        return lookupTable.getByCode(code);
+    }
+
+    /**
+     * Create a province and reload the lookup table.
+     *
+     * @param newObject the new object to persist.
+     * @return the newly persisted object.
+     */
+    @Override
+    public ProvinceDTO create(ProvinceDTO newObject) {
+        ProvinceDTO createdObject = super.create(newObject);
+        reload();
+        return createdObject;
+    }
+
+    /**
+     * Create several provinces and reload the lookup table once.
+     *
+     * @param newObjects the new objects to persist.
+     * @return the newly persisted objects.
      */
-    @Scheduled(fixedRate = 30 * ONE_MINUTE)
-    @CacheEvict(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, allEntries = true)
     @Override
-    public void clearCache() {
-        // All the work in this method is actually done by the annotations.
+    public List<ProvinceDTO> createAll(List<ProvinceDTO> newObjects) {
+        List<ProvinceDTO> createdObjects = super.createAll(newObjects);
+        reload();
+        return createdObjects;
+    }
+
+    /**
+     * Update a province and reload the lookup table.
+     *
+     * @param updatedObject Object containing new values to be persisted.
+     * @return the object that has been updated.
+     * @throws DataNotFoundException when the province cannot be found.
+     */
+    @Override
+    public ProvinceDTO update(ProvinceDTO updatedObject) throws DataNotFoundException {
+        ProvinceDTO savedObject = super.update(updatedObject);
+        reload();
+        return savedObject;
+    }
+
+    /**
+     * Delete a province and reload the lookup table.
+     *
+     * @param id the id of the object to delete.
+     * @throws DataNotFoundException when the province cannot be found.
+     */
+    @Override
+    public void delete(UUID id) throws DataNotFoundException {
+        super.delete(id);
+        reload();
+    }
+
+    /**
+     * Reload the lookup table and, if the provinces have changed, publish their new version. Results derived from the
+     * previous provinces, such as cached pages, are evicted first, so that they can't be sent under the new version.
+     */
+    private void reload() {
+        synchronized (reloadLock) {
+            String version = hash(lookupTable.reload().getAll());
+            if (!version.equals(contentVersion)) {
+                clearDerivedCache();
+                lastModified = Instant.now();
+                contentVersion = version;
+            }
+        }
+    }
+
+    /**
+     * @param provinces the provinces to hash.
+     * @return a hash of the id and version of every given province, whatever their order.
+     */
+    private static String hash(List<ProvinceDTO> provinces) {
+        return DigestUtils.md5DigestAsHex(provinces.stream()
+                .sorted(Comparator.comparing(ProvinceDTO::getId))
+                .map(province -> province.getId() + ":" + province.getVersion())
+                .collect(Collectors.joining(",")).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return every province in the persistence layer.
+     */
+    private List<ProvinceDTO> loadAll() {
+        return provinceRepository.findAllProjectedBy(ProvinceDTO.class);
     }
 }
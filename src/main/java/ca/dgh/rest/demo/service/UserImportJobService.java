@@ -0,0 +1,296 @@
+package ca.dgh.rest.demo.service;
+
+import ca.dgh.rest.demo.exception.ApiExceptionList;
+import ca.dgh.rest.demo.importer.DataFileFormat;
+import ca.dgh.rest.demo.model.dto.ImportJobDTO;
+import ca.dgh.rest.demo.model.dto.ImportResultDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs user imports in the background so that uploading a large file doesn't hold a request thread until it has been
+ * imported. Uploads are copied to a temporary file, queued, and imported by {@link UserImportService} on a small pool of
+ * workers. The state of every import can be followed with {@link #getJob(UUID)} while it runs and for a while after it
+ * has finished.
+ * <p />
+ * The number of workers bounds the number of database connections imports can hold at once, so they can't starve
+ * interactive requests of connections. The queue is bounded too: once it is full, new imports are refused with a
+ * {@link RejectedExecutionException} until a worker frees up, which pushes back on the submitters instead of letting
+ * uploads pile up on disk.
+ */
+@Service
+public class UserImportJobService {
+
+    /**
+     * Imports each file.
+     */
+    private final UserImportService userImportService;
+
+    /**
+     * Runs the imports.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * How long finished imports can still be looked up.
+     */
+    private final Duration retention;
+
+    /**
+     * The state of every import keyed by id. States are replaced rather than changed, so a state read from this map is
+     * never modified afterwards.
+     */
+    private final Map<UUID, ImportJobDTO> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * @param userImportService imports each file.
+     * @param workers           the number of imports run at once.
+     * @param queueCapacity     the number of imports that can wait for a worker.
+     * @param retention         how long finished imports can still be looked up.
+     */
+    public UserImportJobService(UserImportService userImportService,
+                                @Value("${demo.import.workers:2}") int workers,
+                                @Value("${demo.import.queue-capacity:10}") int queueCapacity,
+                                @Value("${demo.import.job-retention:PT1H}") Duration retention) {
+        this.userImportService = userImportService;
+        this.retention = retention;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("user-import-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queue the import of the given file. The file is copied before this returns, so it can be discarded straight
+     * away.
+     *
+     * @param file     the content of the file.
+     * @param fileName the name of the file.
+     * @param format   the format of the file.
+     * @return the state of the queued import, with the id to follow it with.
+     * @throws IOException                when the file can't be copied.
+     * @throws RejectedExecutionException when too many imports are already waiting.
+     */
+    public ImportJobDTO submit(InputStreamSource file, String fileName, DataFileFormat format) throws IOException {
+        // Refuse early when the queue is full rather than copying a file that can't be imported.
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new RejectedExecutionException("Too many imports are waiting, please try again later");
+        }
+        Path spool = Files.createTempFile("user-import-", "." + format.name().toLowerCase(Locale.ROOT));
+        try (InputStream inputStream = file.getInputStream()) {
+            Files.copy(inputStream, spool, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+
+        ImportJobDTO job = new ImportJobDTO();
+        job.setId(UUID.randomUUID());
+        job.setStatus(ImportJobDTO.Status.QUEUED);
+        job.setFileName(fileName);
+        job.setFormat(format);
+        job.setSubmittedAt(Instant.now());
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(new ImportTask(job.getId(), spool, format));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * @param id the id of the import.
+     * @return the current state of the import, or an empty {@link Optional} if there is no such import or it finished
+     * too long ago.
+     */
+    public Optional<ImportJobDTO> getJob(UUID id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Forget the imports that finished longer ago than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${demo.import.job-retention:PT1H}")
+    public void purgeFinishedJobs() {
+        Instant limit = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(limit));
+    }
+
+    /**
+     * Stop the workers, interrupting the imports that are running. The batches they have committed are kept. The
+     * imports still waiting for a worker are cancelled and their files deleted.
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (Runnable queued : executor.shutdownNow()) {
+            if (queued instanceof ImportTask task) {
+                task.cancel();
+            }
+        }
+    }
+
+    /**
+     * Import the spooled file, recording the progress of the import, and delete the file.
+     *
+     * @param id     the id of the import.
+     * @param spool  the copy of the uploaded file.
+     * @param format the format of the file.
+     */
+    private void run(UUID id, Path spool, DataFileFormat format) {
+        Instant startedAt = Instant.now();
+        update(id, job -> {
+            job.setStatus(ImportJobDTO.Status.RUNNING);
+            job.setStartedAt(startedAt);
+        });
+        try (InputStream inputStream = Files.newInputStream(spool)) {
+            ImportResultDTO result = userImportService.importUsers(inputStream, format,
+                    progress -> update(id, job -> recordProgress(job, progress, startedAt)));
+            update(id, job -> {
+                recordProgress(job, result, startedAt);
+                job.setStatus(ImportJobDTO.Status.COMPLETED);
+                job.setFinishedAt(Instant.now());
+            });
+        } catch (IOException | RuntimeException e) {
+            update(id, job -> {
+                job.setStatus(ImportJobDTO.Status.FAILED);
+                job.setFailure(e.getMessage());
+                job.setFinishedAt(Instant.now());
+            });
+        } finally {
+            deleteSpool(spool);
+        }
+    }
+
+    /**
+     * Delete the copy of an uploaded file, or have it deleted when the JVM exits if that fails.
+     *
+     * @param spool the copy of the uploaded file.
+     */
+    private static void deleteSpool(Path spool) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            spool.toFile().deleteOnExit();
+        }
+    }
+
+    /**
+     * Replace the state of an import with a changed copy.
+     *
+     * @param id     the id of the import.
+     * @param change the change to make to the copy.
+     */
+    private void update(UUID id, Consumer<ImportJobDTO> change) {
+        jobs.computeIfPresent(id, (key, job) -> {
+            ImportJobDTO copy = new ImportJobDTO();
+            copy.setId(job.getId());
+            copy.setStatus(job.getStatus());
+            copy.setFileName(job.getFileName());
+            copy.setFormat(job.getFormat());
+            copy.setSubmittedAt(job.getSubmittedAt());
+            copy.setStartedAt(job.getStartedAt());
+            copy.setFinishedAt(job.getFinishedAt());
+            copy.setRowsPerSecond(job.getRowsPerSecond());
+            copy.setResult(job.getResult());
+            copy.setFailure(job.getFailure());
+            change.accept(copy);
+            return copy;
+        });
+    }
+
+    /**
+     * Record a copy of the result so far in the state of an import, since the importer keeps changing it.
+     *
+     * @param job       the state of the import.
+     * @param result    the result so far.
+     * @param startedAt when the import started.
+     */
+    private static void recordProgress(ImportJobDTO job, ImportResultDTO result, Instant startedAt) {
+        ImportResultDTO copy = new ImportResultDTO();
+        copy.setRowsRead(result.getRowsRead());
+        copy.setRowsImported(result.getRowsImported());
+        copy.setRowsRejected(result.getRowsRejected());
+        ApiExceptionList errors = new ApiExceptionList();
+        errors.addAll(new ArrayList<>(result.getErrors().getExceptions()));
+        copy.setErrors(errors);
+        job.setResult(copy);
+        double seconds = Duration.between(startedAt, Instant.now()).toNanos() / 1e9;
+        job.setRowsPerSecond(seconds > 0 ? result.getRowsRead() / seconds : 0);
+    }
+
+    /**
+     * A queued import. It keeps what it needs to be cancelled, since the executor only hands back the tasks it never
+     * ran when it is shut down.
+     */
+    private final class ImportTask implements Runnable {
+
+        /**
+         * The id of the import.
+         */
+        private final UUID id;
+
+        /**
+         * The copy of the uploaded file.
+         */
+        private final Path spool;
+
+        /**
+         * The format of the file.
+         */
+        private final DataFileFormat format;
+
+        /**
+         * @param id     the id of the import.
+         * @param spool  the copy of the uploaded file.
+         * @param format the format of the file.
+         */
+        private ImportTask(UUID id, Path spool, DataFileFormat format) {
+            this.id = id;
+            this.spool = spool;
+            this.format = format;
+        }
+
+        @Override
+        public void run() {
+            UserImportJobService.this.run(id, spool, format);
+        }
+
+        /**
+         * Record that the import will never run and delete its file.
+         */
+        private void cancel() {
+            update(id, job -> {
+                job.setStatus(ImportJobDTO.Status.CANCELLED);
+                job.setFailure("The application shut down before the import started");
+                job.setFinishedAt(Instant.now());
+            });
+            deleteSpool(spool);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package ca.dgh.rest.demo.service;
+
+import ca.dgh.rest.demo.exception.ApiException;
+import ca.dgh.rest.demo.importer.DataFileFormat;
+import ca.dgh.rest.demo.lookup.SearchKeyNormalizer;
+import ca.dgh.rest.demo.model.TimeOrderedUuidGenerator;
+import ca.dgh.rest.demo.model.User;
+import ca.dgh.rest.demo.model.dto.DataFileDTO;
+import ca.dgh.rest.demo.model.dto.ImportResultDTO;
+import ca.dgh.rest.demo.model.dto.ProvinceDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * This class imports users in bulk from data files made of {@link DataFileDTO} rows.
+ * <p />
+ * The file is streamed one row at a time. Each row is validated, its province is resolved against a map of all
+ * provinces built once per import, and valid rows are inserted with JDBC batch statements. Memory use therefore
+ * depends on the batch size rather than on the size of the file.
+ * <p />
+ * Every batch is committed in its own transaction, so a batch the database rejects is reported like an invalid row
+ * and doesn't undo the batches before it. A connection is only held while a batch is inserted, not while the file is
+ * read.
+ */
+@Service
+public class UserImportService {
+
+    /**
+     * The statement inserting a single user. Ids are time-ordered like those generated for {@link User} entities, and
+     * the search keys are filled in like {@link User} entities do on every write.
+     */
+    static final String INSERT_USER = "INSERT INTO APP_USER (ID, FIRST_NAME, LAST_NAME, PROVINCE_ID, FIRST_NAME_KEY,"
+            + " LAST_NAME_KEY) VALUES (?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Used to run the batched inserts.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Validates each row against the constraints declared on {@link DataFileDTO}.
+     */
+    private final Validator validator;
+
+    /**
+     * Provides the provinces that rows are resolved against.
+     */
+    private final ProvinceService provinceService;
+
+    /**
+     * The user service, whose cached collections have to be evicted once users have been imported behind its back.
+     */
+    private final UserService userService;
+
+    /**
+     * Runs each batch in its own transaction.
+     */
+    private final TransactionOperations transactionOperations;
+
+    /**
+     * The number of rows inserted per JDBC batch.
+     */
+    private final int batchSize;
+
+    /**
+     * The maximum number of row errors reported back to the caller.
+     */
+    private final int maxErrors;
+
+    /**
+     * @param jdbcTemplate    used to run the batched inserts.
+     * @param validator       validates each row.
+     * @param provinceService provides the provinces that rows are resolved against.
+     * @param userService           the user service, whose cached collections are evicted after an import.
+     * @param transactionOperations runs each batch in its own transaction.
+     * @param batchSize             the number of rows inserted per JDBC batch.
+     * @param maxErrors             the maximum number of row errors reported back to the caller.
+     */
+    public UserImportService(JdbcTemplate jdbcTemplate, Validator validator, ProvinceService provinceService,
+                             UserService userService, TransactionOperations transactionOperations,
+                             @Value("${demo.import.batch-size:500}") int batchSize,
+                             @Value("${demo.import.max-errors:1000}") int maxErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+        this.provinceService = provinceService;
+        this.userService = userService;
+        this.transactionOperations = transactionOperations;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Import every valid row of the given file as a new user. Invalid rows are skipped and reported in the result.
+     *
+     * @param inputStream the content of the file.
+     * @param format      the format of the file.
+     * @return the number of rows read, imported and rejected, along with the reason each row was rejected.
+     * @throws IOException when the file can't be read or is malformed.
+     */
+    public ImportResultDTO importUsers(InputStream inputStream, DataFileFormat format) throws IOException {
+        return importUsers(inputStream, format, progress -> {
+        });
+    }
+
+    /**
+     * Import every valid row of the given file as a new user, reporting the progress of the import after every batch.
+     *
+     * @param inputStream the content of the file.
+     * @param format      the format of the file.
+     * @param progress    called with the result so far after every batch, on the importing thread. The result keeps
+     *                    changing once the call returns, so it must be copied to be kept.
+     * @return the number of rows read, imported and rejected, along with the reason each row was rejected.
+     * @throws IOException when the file can't be read or is malformed.
+     */
+    public ImportResultDTO importUsers(InputStream inputStream, DataFileFormat format,
+                                       Consumer<ImportResultDTO> progress) throws IOException {
+        ImportResultDTO result = new ImportResultDTO();
+        Map<String, UUID> provinceIds = getProvinceIds();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        List<Long> batchRowNumbers = new ArrayList<>(batchSize);
+        try {
+            format.newReader().read(inputStream, (rowNumber, row) -> {
+                result.setRowsRead(rowNumber);
+                Optional<String> error = validate(row, provinceIds);
+                if (error.isPresent()) {
+                    reject(result, rowNumber, error.get());
+                    return;
+                }
+                batch.add(new Object[]{TimeOrderedUuidGenerator.generateUuid(), row.getFirstName(), row.getLastName(),
+                        provinceIds.get(SearchKeyNormalizer.normalize(row.getProvince())),
+                        SearchKeyNormalizer.normalize(row.getFirstName()),
+                        SearchKeyNormalizer.normalize(row.getLastName())});
+                batchRowNumbers.add(rowNumber);
+                if (batch.size() >= batchSize) {
+                    flush(batch, batchRowNumbers, result);
+                    progress.accept(result);
+                }
+            });
+            flush(batch, batchRowNumbers, result);
+            progress.accept(result);
+        } finally {
+            if (result.getRowsImported() > 0) {
+                // Imported users are new, so the users already cached by id are still current.
+                userService.evictCollections();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check a row against the constraints of {@link DataFileDTO} and make sure its province exists.
+     *
+     * @param row         the row to check.
+     * @param provinceIds the id of every province keyed by search key.
+     * @return the reason the row is invalid, or an empty {@link Optional} if it is valid.
+     */
+    Optional<String> validate(DataFileDTO row, Map<String, UUID> provinceIds) {
+        Set<ConstraintViolation<DataFileDTO>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<DataFileDTO> violation = violations.iterator().next();
+            return Optional.of(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+        if (!provinceIds.containsKey(SearchKeyNormalizer.normalize(row.getProvince()))) {
+            return Optional.of("province '" + row.getProvince() + "' does not exist");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Build a map resolving province codes and English and French names to province ids. This is done once per import
+     * so rows never cause a query.
+     *
+     * @return the id of every province keyed by the search key of its code and names.
+     */
+    Map<String, UUID> getProvinceIds() {
+        Map<String, UUID> provinceIds = new HashMap<>();
+        for (ProvinceDTO province : provinceService.getAll()) {
+            for (String key : new String[]{province.getCode(), province.getNameEn(), province.getNameFr()}) {
+                if (key != null) {
+                    provinceIds.putIfAbsent(SearchKeyNormalizer.normalize(key), province.getId());
+                }
+            }
+        }
+        return provinceIds;
+    }
+
+    /**
+     * Insert the given rows as a single JDBC batch in its own transaction and empty the batch. When the database
+     * rejects the batch, its rows are counted as rejected and the import goes on with the next batch. The error is
+     * reported on the row the database rejected, or on the first row of the batch if the driver doesn't say which.
+     *
+     * @param batch      the rows to insert.
+     * @param rowNumbers the number of each row of the batch in the file.
+     * @param result     the result to record the number of inserted or rejected rows in.
+     */
+    private void flush(List<Object[]> batch, List<Long> rowNumbers, ImportResultDTO result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionOperations.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_USER, batch));
+            result.setRowsImported(result.getRowsImported() + batch.size());
+        } catch (DataAccessException e) {
+            // The rejected row is counted by reject(), along with the error.
+            result.setRowsRejected(result.getRowsRejected() + batch.size() - 1);
+            reject(result, rowNumbers.get(getRejectedIndex(e, batch.size())), "could not be inserted, so the batch of "
+                    + batch.size() + " rows " + rowNumbers.get(0) + " to " + rowNumbers.get(rowNumbers.size() - 1)
+                    + " was rolled back: " + e.getMostSpecificCause().getMessage());
+        }
+        batch.clear();
+        rowNumbers.clear();
+    }
+
+    /**
+     * Find the statement of a batch that the database rejected, from the update counts reported by the driver. Drivers
+     * either stop at the rejected statement, or go on and mark it as failed.
+     *
+     * @param e         the error raised by the batch.
+     * @param batchSize the number of statements in the batch.
+     * @return the index of the rejected statement in the batch, or 0 if the driver doesn't say.
+     */
+    private static int getRejectedIndex(DataAccessException e, int batchSize) {
+        Throwable cause = e;
+        while (cause != null && !(cause instanceof BatchUpdateException)) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof BatchUpdateException batchException && batchException.getUpdateCounts() != null) {
+            int[] updateCounts = batchException.getUpdateCounts();
+            if (updateCounts.length < batchSize) {
+                return updateCounts.length;
+            }
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                    return i;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Record a rejected row, keeping at most {@link #maxErrors} errors.
+     *
+     * @param result    the result to record the error in.
+     * @param rowNumber the number of the rejected row.
+     * @param message   why the row was rejected.
+     */
+    private void reject(ImportResultDTO result, long rowNumber, String message) {
+        result.setRowsRejected(result.getRowsRejected() + 1);
+        if (result.getErrors().getExceptions().size() < maxErrors) {
+            result.getErrors().add(new ApiException("Row " + rowNumber + ": " + message, Optional.of(rowNumber)));
+        }
+    }
+}
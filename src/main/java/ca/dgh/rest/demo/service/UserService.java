@@ -1,13 +1,29 @@
 package ca.dgh.rest.demo.service;
 
+import ca.dgh.rest.demo.configuration.CachingConfiguration;
 import ca.dgh.rest.demo.model.User;
+import ca.dgh.rest.demo.model.dto.ExpandedUserDTO;
+import ca.dgh.rest.demo.model.dto.PageDTO;
+import ca.dgh.rest.demo.model.dto.ProvinceDTO;
 import ca.dgh.rest.demo.model.dto.UserDTO;
+import ca.dgh.rest.demo.model.dto.UserSearchDTO;
+import ca.dgh.rest.demo.repository.UserRepository;
+import ca.dgh.rest.demo.repository.UserSpecifications;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * This class extends a {@link AbstractDTOAwareService} and provides access to all {@link User} objects.
@@ -16,13 +32,91 @@ import java.util.UUID;
 public class UserService extends AbstractDTOAwareService<User, UserDTO> {
 
     /**
-     * A one argument constructor that requires a repository that manages {@link User}.
+     * The repository object used to search {@link User} objects in the persistence layer.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * Provides the provinces users are expanded with.
+     */
+    private final ProvinceService provinceService;
+
+    /**
+     * A two argument constructor that requires a repository that manages {@link User}.
      *
-     * @param repository  a repository that manages {@link User} objects.
-     * @param modelMapper the {@link ModelMapper} that will convert between the {@link User} and {@link UserDTO} classes.
+     * @param repository      a repository that manages {@link User} objects.
+     * @param provinceService provides the provinces users are expanded with.
+     * @param modelMapper     the {@link ModelMapper} that will convert between the {@link User} and {@link UserDTO} classes.
+     *                        It is only built on first use, which never comes when the generated mapper is used.
      */
-    public UserService(JpaRepository<User, UUID> repository,
-                       @Qualifier("modelMapper") ModelMapper modelMapper) {
+    public UserService(UserRepository repository, ProvinceService provinceService,
+                       @Qualifier("modelMapper") @Lazy ModelMapper modelMapper) {
         super(repository, modelMapper, User.class, UserDTO.class);
+        this.userRepository = repository;
+        this.provinceService = provinceService;
+    }
+
+    /**
+     * Get a page of the users matching the given search. Each search is cached under its own key until the next write,
+     * like every other page.
+     *
+     * @param criteria the filters and order of the search.
+     * @param page     the number of the page, starting at 0.
+     * @param size     the maximum number of users in the page, capped like every other page.
+     * @return the requested page of matching users.
+     */
+    @Cacheable(cacheResolver = CachingConfiguration.CACHE_RESOLVER_NAME, cacheNames = DERIVED_CACHE,
+            key = "'search:' + #criteria.toCacheKey() + ':' + T(Math).max(#page, 0) + ':'"
+                    + " + #root.target.pageSize(#size)", sync = true)
+    @Transactional(readOnly = true)
+    public PageDTO<UserDTO> search(UserSearchDTO criteria, int page, int size) {
+        Page<UserDTO> result = userRepository.searchProjected(UserSpecifications.matching(criteria),
+                PageRequest.of(Math.max(page, 0), pageSize(size), criteria.toSort()));
+        PageDTO<UserDTO> pageDTO = new PageDTO<>();
+        pageDTO.setContent(List.copyOf(result.getContent()));
+        pageDTO.setSize(result.getSize());
+        pageDTO.setPage(result.getNumber());
+        pageDTO.setTotalElements(result.getTotalElements());
+        pageDTO.setTotalPages(result.getTotalPages());
+        return pageDTO;
+    }
+
+    /**
+     * Expand the given users with their province. Provinces come from the lookup table of the {@link ProvinceService},
+     * so this runs no query at all unless a province is missing from the table, and never one query per user.
+     *
+     * @param users the users to expand, which are left unchanged since they may be cached.
+     * @return copies of the users with their province, in the same order.
+     */
+    public List<UserDTO> withProvinces(List<UserDTO> users) {
+        Map<UUID, ProvinceDTO> provinces = provinceService.getByIds(users.stream()
+                        .map(UserDTO::getProvinceId).filter(Objects::nonNull).collect(Collectors.toSet()))
+                .getContent().stream().collect(Collectors.toMap(ProvinceDTO::getId, Function.identity()));
+        return users.stream()
+                .<UserDTO>map(user -> new ExpandedUserDTO(user, provinces.get(user.getProvinceId())))
+                .toList();
+    }
+
+    /**
+     * Get the version of the users, which includes the version of the provinces since users can be expanded with them.
+     *
+     * @return the current version of the users and provinces.
+     */
+    @Override
+    public String getContentVersion() {
+        return super.getContentVersion() + ":" + provinceService.getContentVersion();
+    }
+
+    /**
+     * Get the version of a user, which includes the version of the provinces since the user can be expanded with its
+     * province.
+     *
+     * @param user the user to get the version of.
+     * @return the version of the user and provinces, or {@code null} if the user has no version.
+     */
+    @Override
+    public String getObjectVersion(UserDTO user) {
+        String version = super.getObjectVersion(user);
+        return version == null ? null : version + ":" + provinceService.getContentVersion();
     }
 }
@@ -0,0 +1,32 @@
+package db.migration;
+
+import ca.dgh.rest.demo.lookup.SearchKeyNormalizer;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Fill in the search keys of every existing province. This is done in Java rather than SQL so that the keys are
+ * produced by exactly the same {@link SearchKeyNormalizer} that the application uses on writes and lookups.
+ */
+public class V0_0_2__BackfillProvinceSearchKeys extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement();
+             ResultSet provinces = select.executeQuery("SELECT ID, NAME_EN, NAME_FR FROM LK_PROVINCE");
+             PreparedStatement update = context.getConnection().prepareStatement(
+                     "UPDATE LK_PROVINCE SET NAME_EN_KEY = ?, NAME_FR_KEY = ? WHERE ID = ?")) {
+            while (provinces.next()) {
+                update.setString(1, SearchKeyNormalizer.normalize(provinces.getString("NAME_EN")));
+                update.setString(2, SearchKeyNormalizer.normalize(provinces.getString("NAME_FR")));
+                update.setObject(3, provinces.getObject("ID"));
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+    }
+}
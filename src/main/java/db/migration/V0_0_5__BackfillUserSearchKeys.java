@@ -0,0 +1,45 @@
+package db.migration;
+
+import ca.dgh.rest.demo.lookup.SearchKeyNormalizer;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Fill in the search keys of every existing user. This is done in Java rather than SQL so that the keys are produced
+ * by exactly the same {@link SearchKeyNormalizer} that the application uses on writes and searches. The user table can
+ * be large, so rows are read a few at a time and updated in batches.
+ */
+public class V0_0_5__BackfillUserSearchKeys extends BaseJavaMigration {
+
+    /**
+     * The number of rows read per round trip and updated per batch.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement();
+             PreparedStatement update = context.getConnection().prepareStatement(
+                     "UPDATE APP_USER SET FIRST_NAME_KEY = ?, LAST_NAME_KEY = ? WHERE ID = ?")) {
+            select.setFetchSize(BATCH_SIZE);
+            try (ResultSet users = select.executeQuery("SELECT ID, FIRST_NAME, LAST_NAME FROM APP_USER")) {
+                int pending = 0;
+                while (users.next()) {
+                    update.setString(1, SearchKeyNormalizer.normalize(users.getString("FIRST_NAME")));
+                    update.setString(2, SearchKeyNormalizer.normalize(users.getString("LAST_NAME")));
+                    update.setObject(3, users.getObject("ID"));
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+                update.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ca.dgh.rest.demo.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat requests, async work such as streamed exports, and {@link org.springframework.scheduling.annotation.Scheduled}
+ * tasks on virtual threads. This requires Java 21, so it is only compiled with {@code -Pjava21}, and it is only applied
+ * when {@code demo.virtual-threads.enabled} is {@code true}.
+ * <p />
+ * Blocking JDBC calls then no longer tie up a platform thread, which removes the request thread pool as the limit on
+ * concurrent requests. The connection pools become the limit instead, so each of them is wrapped in a
+ * {@link ConcurrencyLimitingDataSource} that queues threads fairly for a connection. With a read replica, see
+ * {@link ReadReplicaConfiguration}, the primary and the replica are limited separately, each to the size of its own
+ * pool, so reads waiting for the replica never hold up writes and the other way around.
+ */
+@Configuration
+@ConditionalOnProperty(name = "demo.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    /**
+     * @return a customizer handing every Tomcat request to a new virtual thread.
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * @return the executor of async requests and {@code @Async} methods, starting a virtual thread per task.
+     */
+    @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * @return the scheduler of {@code @Scheduled} methods, such as the cache maintenance, running on virtual threads.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadFactory(Thread.ofVirtual().name("scheduling-", 1).factory());
+        return scheduler;
+    }
+
+    /**
+     * @param maxConcurrency the maximum number of connections held at once from each pool, or 0 for the size of the
+     *                       pool.
+     * @param timeout        how long a thread waits for a connection before giving up.
+     * @return a post processor wrapping every connection pool in its own {@link ConcurrencyLimitingDataSource}.
+     */
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(
+            @Value("${demo.virtual-threads.max-db-concurrency:0}") int maxConcurrency,
+            @Value("${demo.virtual-threads.db-wait-timeout:30s}") Duration timeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // The pools rather than the data source of the application, which may route between two of them.
+                if (bean instanceof HikariDataSource pool) {
+                    return new ConcurrencyLimitingDataSource(pool,
+                            maxConcurrency > 0 ? maxConcurrency : pool.getMaximumPoolSize(), timeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,7 @@
+-- Search keys hold the province names lower cased and without accents, see SearchKeyNormalizer. They are filled in by
+-- the V0_0_2 Java migration for existing rows and by the Province entity on every write.
+ALTER TABLE LK_PROVINCE ADD COLUMN NAME_EN_KEY VARCHAR (100);
+ALTER TABLE LK_PROVINCE ADD COLUMN NAME_FR_KEY VARCHAR (100);
+
+CREATE INDEX IDX_PROVINCE_NAME_EN_KEY ON LK_PROVINCE (NAME_EN_KEY);
+CREATE INDEX IDX_PROVINCE_NAME_FR_KEY ON LK_PROVINCE (NAME_FR_KEY);
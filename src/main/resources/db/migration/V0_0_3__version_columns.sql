@@ -0,0 +1,4 @@
+-- Version columns used for optimistic locking. Updates are made with UPDATE ... WHERE ID = ? AND VERSION = ?, so a
+-- stale write changes no row and is rejected instead of silently overwriting a newer one.
+ALTER TABLE LK_PROVINCE ADD COLUMN VERSION BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE APP_USER ADD COLUMN VERSION BIGINT DEFAULT 0 NOT NULL;
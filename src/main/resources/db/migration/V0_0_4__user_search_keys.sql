@@ -0,0 +1,11 @@
+-- Search keys hold the user names lower cased and without accents, see SearchKeyNormalizer. They are filled in by the
+-- V0_0_5 Java migration for existing rows and by the User entity and the import on every write.
+ALTER TABLE APP_USER ADD COLUMN FIRST_NAME_KEY VARCHAR (100);
+ALTER TABLE APP_USER ADD COLUMN LAST_NAME_KEY VARCHAR (100);
+
+-- The user search filters on any combination of last name prefix, first name and province, and sorts by name. The
+-- province leads its index since it is the most common filter and is always an equality; the last name comes next so
+-- that a prefix within a province is a range scan that is already in name order.
+CREATE INDEX IDX_USER_PROVINCE_LAST_NAME_KEY ON APP_USER (PROVINCE_ID, LAST_NAME_KEY, FIRST_NAME_KEY);
+CREATE INDEX IDX_USER_LAST_NAME_KEY_FIRST_NAME_KEY ON APP_USER (LAST_NAME_KEY, FIRST_NAME_KEY);
+CREATE INDEX IDX_USER_FIRST_NAME_KEY ON APP_USER (FIRST_NAME_KEY);
@@ -15,6 +15,7 @@ public class TestFactory {
         province.setNameEn("Nova Scotia");
         province.setNameFr("Nouvelle-Écosse");
         province.setCode("NS");
+        province.setVersion(0L);
         return province;
     }
 
@@ -24,6 +25,7 @@ public class TestFactory {
         province.setNameEn("Nova Scotia");
         province.setNameFr("Nouvelle-Écosse");
         province.setCode("NS");
+        province.setVersion(0L);
         return province;
     }
 
@@ -33,6 +35,7 @@ public class TestFactory {
         user.setFirstName("John");
         user.setLastName("Doe");
         user.setProvinceId(getProvince().getId());
+        user.setVersion(0L);
         return user;
     }
 
@@ -42,6 +45,7 @@ public class TestFactory {
         user.setFirstName("John");
         user.setLastName("Doe");
         user.setProvinceId(getProvince().getId());
+        user.setVersion(0L);
         return user;
     }
 }
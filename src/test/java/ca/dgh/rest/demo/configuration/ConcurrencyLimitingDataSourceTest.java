@@ -0,0 +1,65 @@
+package ca.dgh.rest.demo.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+class ConcurrencyLimitingDataSourceTest {
+
+    /**
+     * Only the allowed number of connections may be held at once, and closing a connection, even twice, frees exactly
+     * one place.
+     *
+     * @throws SQLException when a connection can't be obtained.
+     */
+    @Test
+    void success_limitsConcurrentConnections() throws SQLException {
+        DataSource target = Mockito.mock(DataSource.class);
+        Mockito.when(target.getConnection()).thenAnswer(invocation -> Mockito.mock(Connection.class));
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 1, Duration.ofMillis(20));
+
+        Connection first = dataSource.getConnection();
+        Assertions.assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        first.close();
+        Connection second = dataSource.getConnection();
+        Assertions.assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        second.close();
+    }
+
+    /**
+     * A failure to get a connection from the target must not use up a place.
+     *
+     * @throws SQLException when a connection can't be obtained.
+     */
+    @Test
+    void success_releasesOnFailure() throws SQLException {
+        DataSource target = Mockito.mock(DataSource.class);
+        Mockito.when(target.getConnection()).thenThrow(new SQLException("down"))
+                .thenAnswer(invocation -> Mockito.mock(Connection.class));
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 1, Duration.ofMillis(20));
+
+        Assertions.assertThrows(SQLException.class, dataSource::getConnection);
+        Assertions.assertNotNull(dataSource.getConnection());
+    }
+
+    /**
+     * Closing the wrapper must close the pool it wraps, since it replaces the pool as a bean.
+     *
+     * @throws Exception when the pool fails to close.
+     */
+    @Test
+    void success_closesTarget() throws Exception {
+        DataSource target = Mockito.mock(DataSource.class, Mockito.withSettings().extraInterfaces(AutoCloseable.class));
+        new ConcurrencyLimitingDataSource(target, 1, Duration.ofMillis(20)).close();
+
+        Mockito.verify((AutoCloseable) target).close();
+    }
+}
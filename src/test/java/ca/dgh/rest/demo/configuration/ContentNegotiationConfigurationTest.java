@@ -0,0 +1,50 @@
+package ca.dgh.rest.demo.configuration;
+
+import ca.dgh.rest.demo.TestFactory;
+import ca.dgh.rest.demo.model.dto.ProvinceDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+class ContentNegotiationConfigurationTest {
+
+    /**
+     * The binary converters must come after JSON so that JSON stays the default, and must write objects that read
+     * back unchanged.
+     *
+     * @throws IOException when an object can't be written or read.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void success_binaryFormats() throws IOException {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(new MappingJackson2HttpMessageConverter()));
+        new ContentNegotiationConfiguration(new Jackson2ObjectMapperBuilder(), new SimpleMeterRegistry())
+                .extendMessageConverters(converters);
+
+        Assertions.assertInstanceOf(MappingJackson2HttpMessageConverter.class, converters.get(0));
+        ProvinceDTO province = TestFactory.getProvinceDTO();
+        for (MediaType mediaType : List.of(MediaType.valueOf("application/x-jackson-smile"),
+                MediaType.APPLICATION_CBOR)) {
+            HttpMessageConverter<Object> converter = (HttpMessageConverter<Object>) converters.stream()
+                    .filter(candidate -> candidate.canWrite(ProvinceDTO.class, mediaType)).findFirst().orElseThrow();
+            Assertions.assertNotSame(converters.get(0), converter);
+
+            MockHttpOutputMessage output = new MockHttpOutputMessage();
+            converter.write(province, mediaType, output);
+            ProvinceDTO read = (ProvinceDTO) converter.read(ProvinceDTO.class,
+                    new MockHttpInputMessage(output.getBodyAsBytes()));
+            Assertions.assertEquals(province.getId(), read.getId());
+            Assertions.assertEquals(province.getCode(), read.getCode());
+        }
+    }
+}
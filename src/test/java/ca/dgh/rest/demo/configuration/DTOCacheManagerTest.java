@@ -0,0 +1,87 @@
+package ca.dgh.rest.demo.configuration;
+
+import ca.dgh.rest.demo.TestFactory;
+import ca.dgh.rest.demo.model.dto.UserDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.jcache.JCacheCache;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tests that the {@link DTOCacheManager} builds each cache according to its {@link DTOCacheProperties.CacheSpec}.
+ */
+class DTOCacheManagerTest {
+
+    private DTOCacheManager cacheManager;
+
+    @BeforeEach
+    void setup() {
+        DTOCacheProperties properties = new DTOCacheProperties();
+
+        DTOCacheProperties.CacheSpec heap = new DTOCacheProperties.CacheSpec();
+        heap.setMaximumSize(10L);
+        properties.getCaches().put("province", heap);
+
+        DTOCacheProperties.CacheSpec offHeap = new DTOCacheProperties.CacheSpec();
+        offHeap.setStorage(DTOCacheProperties.Storage.OFF_HEAP);
+        offHeap.setOffHeapSize(DataSize.ofMegabytes(1));
+        offHeap.setTimeToLive(Duration.ofMinutes(1));
+        properties.getCaches().put("user", offHeap);
+
+        cacheManager = new DTOCacheManager(properties);
+        cacheManager.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.destroy();
+    }
+
+    /**
+     * Configured caches should exist as soon as the manager has been initialized, so they can be bound to metrics.
+     */
+    @Test
+    void success_configuredCachesAreCreatedOnStartup() {
+        Assertions.assertTrue(cacheManager.getCacheNames().containsAll(List.of("province", "user")));
+        Assertions.assertInstanceOf(CaffeineCache.class, cacheManager.getCache("province"));
+        Assertions.assertInstanceOf(JCacheCache.class, cacheManager.getCache("user"));
+    }
+
+    /**
+     * Unknown caches are created on demand with the default settings.
+     */
+    @Test
+    void success_missingCacheUsesDefaults() {
+        Assertions.assertInstanceOf(CaffeineCache.class, cacheManager.getCache("unknown"));
+    }
+
+    /**
+     * A DTO stored in an off-heap cache should survive the serialization round trip.
+     */
+    @Test
+    void success_offHeapRoundTrip() {
+        Cache cache = cacheManager.getCache("user");
+        cache.put(TestFactory.getUserDTO().getId(), TestFactory.getUserDTO());
+        Cache.ValueWrapper wrapper = cache.get(TestFactory.getUserDTO().getId());
+        Assertions.assertNotNull(wrapper);
+        Assertions.assertEquals(TestFactory.getUserDTO().getFirstName(), ((UserDTO) wrapper.get()).getFirstName());
+    }
+
+    /**
+     * Values missing from a cache specification fall back to the defaults.
+     */
+    @Test
+    void success_specMergesDefaults() {
+        DTOCacheProperties.CacheSpec spec = new DTOCacheProperties().getSpec("anything");
+        Assertions.assertEquals(DTOCacheProperties.Storage.HEAP, spec.getStorage());
+        Assertions.assertNotNull(spec.getTimeToLive());
+        Assertions.assertNotNull(spec.getMaximumSize());
+    }
+}
@@ -0,0 +1,89 @@
+package ca.dgh.rest.demo.configuration;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Routes transactions between two in-memory databases standing in for the primary and the replica. Each database
+ * holds a row naming it, so a query tells which one it ran on.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate replica;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readOnly;
+
+    private TransactionTemplate readWrite;
+
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setup() {
+        JdbcDataSource primaryDataSource = database("routing-primary");
+        JdbcDataSource replicaDataSource = database("routing-replica");
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE IF NOT EXISTS REPLICA_LAG (SECONDS DOUBLE)");
+        replica.update("DELETE FROM REPLICA_LAG");
+        replica.update("INSERT INTO REPLICA_LAG VALUES (0)");
+
+        monitor = new ReplicaLagMonitor(replicaDataSource, "SELECT SECONDS FROM REPLICA_LAG", Duration.ofSeconds(5));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, monitor));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    /**
+     * Read-only transactions should go to the replica once it has been checked, and everything else to the primary.
+     */
+    @Test
+    void success_routesReadOnlyTransactionsToReplica() {
+        Assertions.assertEquals("routing-primary", readOnly.execute(status -> name()));
+
+        monitor.check();
+        Assertions.assertEquals("routing-replica", readOnly.execute(status -> name()));
+        Assertions.assertEquals("routing-primary", readWrite.execute(status -> name()));
+        Assertions.assertEquals("routing-primary", name());
+    }
+
+    /**
+     * Reads should go back to the primary while the replica lags too far behind.
+     */
+    @Test
+    void success_fallsBackToPrimaryWhenReplicaLags() {
+        replica.update("UPDATE REPLICA_LAG SET SECONDS = 60");
+        monitor.check();
+        Assertions.assertEquals("routing-primary", readOnly.execute(status -> name()));
+
+        replica.update("UPDATE REPLICA_LAG SET SECONDS = 1");
+        monitor.check();
+        Assertions.assertEquals("routing-replica", readOnly.execute(status -> name()));
+    }
+
+    private String name() {
+        return jdbcTemplate.queryForObject("SELECT NAME FROM DATABASE_NAME", String.class);
+    }
+
+    private static JdbcDataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS DATABASE_NAME (NAME VARCHAR(50))");
+        jdbcTemplate.update("DELETE FROM DATABASE_NAME");
+        jdbcTemplate.update("INSERT INTO DATABASE_NAME VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,94 @@
+package ca.dgh.rest.demo.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the loading and refreshing behaviour of the {@link RefreshAheadCache}.
+ */
+class RefreshAheadCacheTest {
+
+    /**
+     * A value that is not due for a refresh should be loaded once and then served from the cache.
+     */
+    @Test
+    void success_missLoadsOnce() {
+        RefreshAheadCache cache = new RefreshAheadCache(new ConcurrentMapCache("test"), Duration.ofHours(1), Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+
+        int first = cache.get("key", loads::incrementAndGet);
+        int second = cache.get("key", loads::incrementAndGet);
+        Assertions.assertEquals(1, first);
+        Assertions.assertEquals(1, second);
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    /**
+     * Misses on the same key from several threads at once should share a single load, and every thread should get its
+     * value. The loader is held until every thread is waiting, so all of them miss while the load is in flight.
+     */
+    @Test
+    void success_concurrentMissesLoadOnce() throws InterruptedException {
+        RefreshAheadCache cache = new RefreshAheadCache(new ConcurrentMapCache("test"), Duration.ofHours(1), Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Integer> results = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> results.add(cache.get("key", () -> {
+                loads.incrementAndGet();
+                release.await(10, TimeUnit.SECONDS);
+                return 42;
+            }))));
+        }
+        threads.forEach(Thread::start);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (threads.stream().anyMatch(thread -> thread.getState() != Thread.State.WAITING
+                && thread.getState() != Thread.State.TIMED_WAITING) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(8, results.size());
+        Assertions.assertTrue(results.stream().allMatch(result -> result == 42));
+    }
+
+    /**
+     * A value that is due for a refresh should still be served while the new value is loaded.
+     */
+    @Test
+    void success_refreshServesCurrentValue() {
+        RefreshAheadCache cache = new RefreshAheadCache(new ConcurrentMapCache("test"), Duration.ZERO, Runnable::run);
+        cache.put("key", "old");
+
+        Assertions.assertEquals("old", cache.get("key", () -> "new"));
+        Assertions.assertEquals("new", cache.get("key", String.class));
+    }
+
+    /**
+     * Values written directly should be readable without a loader.
+     */
+    @Test
+    void success_putAndGet() {
+        RefreshAheadCache cache = new RefreshAheadCache(new ConcurrentMapCache("test"), Duration.ofHours(1), Runnable::run);
+        cache.put("key", null);
+
+        Assertions.assertNotNull(cache.get("key"));
+        Assertions.assertNull(cache.get("key").get());
+        cache.evict("key");
+        Assertions.assertNull(cache.get("key"));
+    }
+}
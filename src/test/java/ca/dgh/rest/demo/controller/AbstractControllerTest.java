@@ -1,26 +1,38 @@
 package ca.dgh.rest.demo.controller;
 
+import ca.dgh.rest.demo.configuration.HttpCacheProperties;
+import ca.dgh.rest.demo.controller.advice.DataExceptionControllerAdvice;
 import ca.dgh.rest.demo.controller.advice.EmptyOptionalResponseControllerAdvice;
+import ca.dgh.rest.demo.controller.advice.ObjectETagControllerAdvice;
+import ca.dgh.rest.demo.exception.DataNotFoundException;
 import ca.dgh.rest.demo.model.AbstractEntity;
 import ca.dgh.rest.demo.model.dto.AbstractDTO;
+import ca.dgh.rest.demo.model.dto.BatchDTO;
+import ca.dgh.rest.demo.model.dto.PageDTO;
 import ca.dgh.rest.demo.service.AbstractDTOAwareService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import lombok.Getter;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.MethodValidationInterceptor;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public abstract class AbstractControllerTest<S extends AbstractEntity, T extends AbstractDTO> {
 
@@ -52,16 +64,27 @@ public abstract class AbstractControllerTest<S extends AbstractEntity, T extends
      * @param controller the controller that will allow us to do CRUD operations on the provided object.
      * @param service    a mocked service to be used by the controller to preform I/O operations.
      * @param path       relative root path where the endpoint is being served from. We expect this string to end with a "/".
+     * @param advice     controller advice specific to the controller, on top of the advice every controller gets.
      */
-    public void setup(T testObject, Controller<T> controller, AbstractDTOAwareService<S, T> service, String path) {
+    public void setup(T testObject, Controller<T> controller, AbstractDTOAwareService<S, T> service, String path,
+                      Object... advice) {
         // Here we check our test data for some basic details that may trip up a developer in the future.
         assert testObject.getId() != null;
         assert path.endsWith("/");
 
         this.service = service;
         this.path = path;
-        mockMvc = MockMvcBuilders.standaloneSetup(controller)
-                .setControllerAdvice(new EmptyOptionalResponseControllerAdvice()).build();
+        // Validate the method arguments like the proxy the application puts around @Validated controllers.
+        ProxyFactory validatingController = new ProxyFactory(controller);
+        validatingController.setProxyTargetClass(true);
+        validatingController.addAdvice(new MethodValidationInterceptor());
+        mockMvc = MockMvcBuilders.standaloneSetup(validatingController.getProxy())
+                .setControllerAdvice(Stream.concat(Stream.of(new EmptyOptionalResponseControllerAdvice(),
+                                new DataExceptionControllerAdvice(), new ObjectETagControllerAdvice()),
+                        Stream.of(advice)).toArray())
+                .addMappedInterceptors(new String[]{"/api/**"},
+                        new ConditionalRequestInterceptor(new HttpCacheProperties()))
+                .build();
         this.testObject = testObject;
         Mockito.when(service.getById(this.testObject.getId())).thenReturn(Optional.of(this.testObject));
     }
@@ -85,6 +108,50 @@ public abstract class AbstractControllerTest<S extends AbstractEntity, T extends
         compare(testObject, returnedList.get(0));
     }
 
+    /**
+     * Attempt to get a page of objects by page number from the endpoint.
+     *
+     * @throws Exception thrown when trying to perform the call to the {@link MockMvc} object.
+     */
+    @Test
+    public void test_getPage() throws Exception {
+        PageDTO<T> page = new PageDTO<>();
+        page.setContent(List.of(testObject));
+        Mockito.when(service.getPage(2, 10)).thenReturn(page);
+        mockMvc.perform(MockMvcRequestBuilders.get(path + "page").param("page", "2").param("size", "10"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Mockito.verify(service).getPage(2, 10);
+    }
+
+    /**
+     * An invalid continuation token should be reported as a {@code 400 Bad Request}.
+     *
+     * @throws Exception thrown when trying to perform the call to the {@link MockMvc} object.
+     */
+    @Test
+    public void test_failure_getPageAfter() throws Exception {
+        Mockito.when(service.getPageAfter("bad", 50)).thenThrow(new IllegalArgumentException());
+        mockMvc.perform(MockMvcRequestBuilders.get(path + "seek").param("token", "bad"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    /**
+     * Exports should be streamed asynchronously as an attachment in the requested format.
+     *
+     * @throws Exception thrown when trying to perform the call to the {@link MockMvc} object.
+     */
+    @Test
+    public void test_export() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get(path + "export").param("format", "CSV"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("text/csv"))
+                .andExpect(MockMvcResultMatchers.header().string("Content-Disposition",
+                        Matchers.containsString(".csv")));
+        Mockito.verify(service).exportAll(Mockito.any());
+    }
+
     /**
      * Compare the test object with a {@link JsonNode} representation of that object that has been returned by the
      * {@link MockMvc} object.
@@ -113,6 +180,52 @@ public abstract class AbstractControllerTest<S extends AbstractEntity, T extends
         compare(testObject, returnedObject);
     }
 
+    /**
+     * A client that already holds the current version of an object should get a {@code 304 Not Modified} without a
+     * body.
+     *
+     * @throws Exception thrown when trying to perform the call to the {@link MockMvc} object.
+     */
+    @Test
+    public void test_getById_notModified() throws Exception {
+        Mockito.when(service.getObjectVersion(testObject)).thenReturn("1");
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get(path + testObject.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+        assert eTag != null;
+        // The ETag of an unconditional request comes from the object the controller returns, read only once.
+        Mockito.verify(service, Mockito.times(1)).getById(testObject.getId());
+        mockMvc.perform(MockMvcRequestBuilders.get(path + testObject.getId()).header("If-None-Match", eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        Mockito.when(service.getObjectVersion(testObject)).thenReturn("2");
+        mockMvc.perform(MockMvcRequestBuilders.get(path + testObject.getId()).header("If-None-Match", eTag))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    /**
+     * A client that already holds the current list of objects should get a {@code 304 Not Modified} without the
+     * service being asked for the list.
+     *
+     * @throws Exception thrown when trying to perform the call to the {@link MockMvc} object.
+     */
+    @Test
+    public void test_getAll_notModified() throws Exception {
+        Mockito.when(service.getContentVersion()).thenReturn("1");
+        Mockito.when(service.getLastModified()).thenReturn(Instant.now());
+        Mockito.when(service.getAll()).thenReturn(List.of(testObject));
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get(path))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        assert eTag != null;
+        mockMvc.perform(MockMvcRequestBuilders.get(path).header("If-None-Match", eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+        Mockito.verify(service, Mockito.times(1)).getAll();
+    }
+
     /**
      * If the user requests an object that does not exit, they should get a "file not found" message. This
      * also exercises the logic in the {@link EmptyOptionalResponseControllerAdvice}.
@@ -137,6 +250,52 @@ public abstract class AbstractControllerTest<S extends AbstractEntity, T extends
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    /**
+     * If a user attempts to call the batch create endpoint with a list of valid objects, then that should be successful.
+     *
+     * @throws Exception thrown when something goes wrong calling the {@link Mockito} perform method.
+     */
+    @Test
+    public void test_success_createAll() throws Exception {
+        Mockito.when(service.createAll(Mockito.anyList())).thenReturn(List.of(testObject));
+        mockMvc.perform(MockMvcRequestBuilders.post(path + "batch").contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(List.of(testObject))))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Mockito.verify(service).createAll(Mockito.anyList());
+    }
+
+    /**
+     * A batch larger than the service accepts should be rejected with a {@code 400 Bad Request}.
+     *
+     * @throws Exception thrown when something goes wrong calling the {@link Mockito} perform method.
+     */
+    @Test
+    public void test_failure_createAll_tooMany() throws Exception {
+        Mockito.when(service.createAll(Mockito.anyList())).thenThrow(new IllegalArgumentException("Too many"));
+        mockMvc.perform(MockMvcRequestBuilders.post(path + "batch").contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(List.of(testObject))))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    /**
+     * Several objects can be fetched at once by id.
+     *
+     * @throws Exception thrown when something goes wrong calling the {@link Mockito} perform method.
+     */
+    @Test
+    public void test_getByIds() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        BatchDTO<T> batch = new BatchDTO<>();
+        batch.setContent(List.of(testObject));
+        batch.setMissingIds(List.of(missingId));
+        Mockito.when(service.getByIds(List.of(testObject.getId(), missingId))).thenReturn(batch);
+        mockMvc.perform(MockMvcRequestBuilders.get(path + "batch").accept(MediaType.APPLICATION_JSON)
+                        .param("ids", testObject.getId() + "," + missingId))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id").value(testObject.getId().toString()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.missingIds[0]").value(missingId.toString()));
+    }
+
     /**
      * If a user calls update using a valid object, then that should be successful.
      *
@@ -149,6 +308,35 @@ public abstract class AbstractControllerTest<S extends AbstractEntity, T extends
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    /**
+     * Updating an object that doesn't exist should return a 404, and updating a stale copy of an object a 409.
+     *
+     * @throws Exception thrown when something goes wrong calling the {@link Mockito} perform method.
+     */
+    @Test
+    public void test_failure_update() throws Exception {
+        Mockito.when(service.update(Mockito.any())).thenThrow(new DataNotFoundException())
+                .thenThrow(new OptimisticLockingFailureException("stale"));
+        mockMvc.perform(MockMvcRequestBuilders.put(path).contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(testObject)))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.put(path).contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(testObject)))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
+    /**
+     * Deleting an object that doesn't exist should return a 404.
+     *
+     * @throws Exception thrown when something goes wrong calling the {@link Mockito} perform method.
+     */
+    @Test
+    public void test_failure_delete() throws Exception {
+        Mockito.doThrow(new DataNotFoundException()).when(service).delete(testObject.getId());
+        mockMvc.perform(MockMvcRequestBuilders.delete(path + testObject.getId()))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
     /**
      * Test the successful deletion of an object through the controllers delete method.
      *
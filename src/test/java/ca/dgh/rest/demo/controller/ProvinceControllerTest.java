@@ -4,9 +4,19 @@ import ca.dgh.rest.demo.TestFactory;
 import ca.dgh.rest.demo.model.Province;
 import ca.dgh.rest.demo.model.dto.ProvinceDTO;
 import ca.dgh.rest.demo.service.ProvinceService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+import java.util.Optional;
 
 class ProvinceControllerTest extends AbstractControllerTest<Province, ProvinceDTO> {
 
@@ -21,4 +31,46 @@ class ProvinceControllerTest extends AbstractControllerTest<Province, ProvinceDT
                 provinceService,
                 "/api/province/");
     }
+
+    /**
+     * Typeahead searches should be passed through to the service with the requested limit.
+     *
+     * @throws Exception thrown when trying to perform the call to the {@link org.springframework.test.web.servlet.MockMvc} object.
+     */
+    @Test
+    void test_typeahead() throws Exception {
+        Mockito.when(provinceService.getProvincesByNamePrefix("nov", 5)).thenReturn(List.of(TestFactory.getProvinceDTO()));
+        getMockMvc().perform(MockMvcRequestBuilders.get("/api/province/typeahead").param("prefix", "nov").param("limit", "5"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Mockito.verify(provinceService).getProvincesByNamePrefix("nov", 5);
+    }
+
+    /**
+     * Looking up an unknown province name should return a {@code 404 Not Found}.
+     *
+     * @throws Exception thrown when trying to perform the call to the {@link org.springframework.test.web.servlet.MockMvc} object.
+     */
+    @Test
+    void test_failure_getByName() throws Exception {
+        Mockito.when(provinceService.getProvinceByName("Atlantis")).thenReturn(Optional.empty());
+        getMockMvc().perform(MockMvcRequestBuilders.get("/api/province/name/Atlantis"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    /**
+     * Every province of a batch should be validated, so a batch holding an invalid province is rejected with a
+     * {@code 400 Bad Request} before it reaches the service.
+     *
+     * @throws Exception thrown when trying to perform the call to the {@link org.springframework.test.web.servlet.MockMvc} object.
+     */
+    @Test
+    void test_failure_createAll_invalidElement() throws Exception {
+        ProvinceDTO invalid = TestFactory.getProvinceDTO();
+        invalid.setCode("TOO LONG");
+        getMockMvc().perform(MockMvcRequestBuilders.post("/api/province/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(List.of(TestFactory.getProvinceDTO(), invalid))))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("[1].code")));
+        Mockito.verify(provinceService, Mockito.never()).createAll(Mockito.anyList());
+    }
 }
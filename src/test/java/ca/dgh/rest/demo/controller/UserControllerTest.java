@@ -1,12 +1,26 @@
 package ca.dgh.rest.demo.controller;
 
 import ca.dgh.rest.demo.TestFactory;
+import ca.dgh.rest.demo.controller.advice.UserExpansionControllerAdvice;
 import ca.dgh.rest.demo.model.User;
+import ca.dgh.rest.demo.model.dto.ExpandedUserDTO;
+import ca.dgh.rest.demo.model.dto.PageDTO;
 import ca.dgh.rest.demo.model.dto.UserDTO;
+import ca.dgh.rest.demo.model.dto.UserSearchDTO;
 import ca.dgh.rest.demo.service.UserService;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
 
 public class UserControllerTest extends AbstractControllerTest<User, UserDTO> {
 
@@ -19,6 +33,54 @@ public class UserControllerTest extends AbstractControllerTest<User, UserDTO> {
         super.setup(TestFactory.getUserDTO(),
                 new UserController(userService),
                 userService,
-                "/api/user/");
+                "/api/user/",
+                new UserExpansionControllerAdvice(userService));
+    }
+
+    /**
+     * Users should only be expanded with their province when the client asks for it.
+     *
+     * @throws Exception thrown when something goes wrong calling the {@link Mockito} perform method.
+     */
+    @Test
+    public void test_getAll_expandProvince() throws Exception {
+        UserDTO user = TestFactory.getUserDTO();
+        Mockito.when(userService.getAll()).thenReturn(List.of(user));
+        Mockito.when(userService.withProvinces(List.of(user)))
+                .thenReturn(List.of(new ExpandedUserDTO(user, TestFactory.getProvinceDTO())));
+
+        getMockMvc().perform(MockMvcRequestBuilders.get("/api/user/").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].province").doesNotExist());
+        getMockMvc().perform(MockMvcRequestBuilders.get("/api/user/").accept(MediaType.APPLICATION_JSON)
+                        .param("expand", "province"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].province.code").value("NS"));
+        Mockito.verify(userService, Mockito.times(1)).withProvinces(Mockito.anyList());
+    }
+
+    /**
+     * The search filters and order should be bound from the query parameters.
+     *
+     * @throws Exception thrown when something goes wrong calling the {@link Mockito} perform method.
+     */
+    @Test
+    public void test_search() throws Exception {
+        PageDTO<UserDTO> page = new PageDTO<>();
+        page.setContent(List.of(TestFactory.getUserDTO()));
+        Mockito.when(userService.search(Mockito.any(), Mockito.eq(1), Mockito.eq(20))).thenReturn(page);
+        getMockMvc().perform(MockMvcRequestBuilders.get("/api/user/search").accept(MediaType.APPLICATION_JSON)
+                        .param("lastName", "Tremb")
+                        .param("sort", "FIRST_NAME").param("direction", "DESC").param("page", "1").param("size", "20"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id")
+                        .value(TestFactory.getUserDTO().getId().toString()));
+
+        ArgumentCaptor<UserSearchDTO> criteria = ArgumentCaptor.forClass(UserSearchDTO.class);
+        Mockito.verify(userService).search(criteria.capture(), Mockito.eq(1), Mockito.eq(20));
+        Assertions.assertEquals("Tremb", criteria.getValue().getLastName());
+        Assertions.assertNull(criteria.getValue().getProvinceId());
+        Assertions.assertEquals(UserSearchDTO.SortField.FIRST_NAME, criteria.getValue().getSort());
+        Assertions.assertEquals(Sort.Direction.DESC, criteria.getValue().getDirection());
     }
 }
@@ -0,0 +1,61 @@
+package ca.dgh.rest.demo.exporter;
+
+import ca.dgh.rest.demo.TestFactory;
+import ca.dgh.rest.demo.model.dto.UserDTO;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests that every {@link DataExportFormat} writes one record per object.
+ */
+class DataExportWriterTest {
+
+    @Test
+    void success_writeNdjson() throws IOException {
+        String[] lines = new String(export(DataExportFormat.NDJSON), StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertTrue(lines[0].startsWith("{") && lines[0].contains("\"firstName\":\"John\""));
+    }
+
+    @Test
+    void success_writeCsv() throws IOException {
+        String[] lines = new String(export(DataExportFormat.CSV), StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(3, lines.length);
+        Assertions.assertTrue(lines[0].contains("firstName"));
+        Assertions.assertTrue(lines[1].contains("John"));
+    }
+
+    @Test
+    void success_writeXlsx() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(export(DataExportFormat.XLSX)))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            Assertions.assertEquals(2, sheet.getLastRowNum());
+            Assertions.assertEquals("John", sheet.getRow(1).getCell(columnOf(sheet, "firstName")).getStringCellValue());
+        }
+    }
+
+    private byte[] export(DataExportFormat format) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataExportWriter<UserDTO> writer = format.newWriter(outputStream, UserDTO.class)) {
+            writer.write(TestFactory.getUserDTO());
+            writer.write(TestFactory.getUserDTO());
+        }
+        return outputStream.toByteArray();
+    }
+
+    private int columnOf(Sheet sheet, String name) {
+        for (int i = 0; i < sheet.getRow(0).getLastCellNum(); i++) {
+            if (name.equals(sheet.getRow(0).getCell(i).getStringCellValue())) {
+                return i;
+            }
+        }
+        throw new AssertionError("No column " + name);
+    }
+}
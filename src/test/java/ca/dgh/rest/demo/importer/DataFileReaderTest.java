@@ -0,0 +1,81 @@
+package ca.dgh.rest.demo.importer;
+
+import ca.dgh.rest.demo.model.dto.DataFileDTO;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests that every {@link DataFileFormat} streams the same rows out of an equivalent file.
+ */
+class DataFileReaderTest {
+
+    @Test
+    void success_readCsv() throws IOException {
+        String csv = "First Name,Last Name,Province\nJohn,Doe,NS\nJane,,Québec\n";
+        assertRows(read(DataFileFormat.CSV, csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void success_readXml() throws IOException {
+        String xml = "<users>"
+                + "<user><firstName>John</firstName><lastName>Doe</lastName><province>NS</province></user>"
+                + "<user><firstName>Jane</firstName><lastName></lastName><province>Québec</province></user>"
+                + "</users>";
+        assertRows(read(DataFileFormat.XML, xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void success_readXlsx() throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            String[][] cells = {{"firstName", "lastName", "province"}, {"John", "Doe", "NS"}, {"Jane", null, "Québec"}};
+            for (int r = 0; r < cells.length; r++) {
+                Row row = sheet.createRow(r);
+                for (int c = 0; c < cells[r].length; c++) {
+                    if (cells[r][c] != null) {
+                        row.createCell(c).setCellValue(cells[r][c]);
+                    }
+                }
+            }
+            workbook.write(content);
+        }
+        assertRows(read(DataFileFormat.XLSX, content.toByteArray()));
+    }
+
+    @Test
+    void success_fromFileName() {
+        Assertions.assertEquals(DataFileFormat.XLSX, DataFileFormat.fromFileName("users.xlsx").orElseThrow());
+        Assertions.assertEquals(DataFileFormat.CSV, DataFileFormat.fromFileName("USERS.CSV").orElseThrow());
+        Assertions.assertTrue(DataFileFormat.fromFileName("users").isEmpty());
+    }
+
+    private List<DataFileDTO> read(DataFileFormat format, byte[] content) throws IOException {
+        List<DataFileDTO> rows = new ArrayList<>();
+        format.newReader().read(new ByteArrayInputStream(content), (rowNumber, row) -> {
+            Assertions.assertEquals(rows.size() + 1, rowNumber);
+            rows.add(row);
+        });
+        return rows;
+    }
+
+    private void assertRows(List<DataFileDTO> rows) {
+        Assertions.assertEquals(2, rows.size());
+        Assertions.assertEquals("John", rows.get(0).getFirstName());
+        Assertions.assertEquals("Doe", rows.get(0).getLastName());
+        Assertions.assertEquals("NS", rows.get(0).getProvince());
+        Assertions.assertEquals("Jane", rows.get(1).getFirstName());
+        Assertions.assertTrue(rows.get(1).getLastName() == null || rows.get(1).getLastName().isEmpty());
+        Assertions.assertEquals("Québec", rows.get(1).getProvince());
+    }
+}
@@ -0,0 +1,61 @@
+package ca.dgh.rest.demo.mapper;
+
+import ca.dgh.rest.demo.TestFactory;
+import ca.dgh.rest.demo.model.Province;
+import ca.dgh.rest.demo.model.User;
+import ca.dgh.rest.demo.model.dto.ProvinceDTO;
+import ca.dgh.rest.demo.model.dto.UserDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+
+/**
+ * Tests that the generated mappers produce the same objects as the {@link ModelMapper} they replace.
+ */
+class DTOMapperTest {
+
+    private final ModelMapper modelMapper = new ModelMapperConfiguration().createModelMapper();
+
+    @Test
+    void success_userMapper_matchesModelMapper() {
+        DTOMapper<User, UserDTO> generated = Mappers.getMapper(UserMapper.class);
+        DTOMapper<User, UserDTO> reflective = new ModelMapperDTOMapper<>(modelMapper, User.class, UserDTO.class);
+
+        UserDTO expectedDTO = reflective.toDTO(TestFactory.getUser());
+        UserDTO actualDTO = generated.toDTO(TestFactory.getUser());
+        Assertions.assertEquals(expectedDTO.getId(), actualDTO.getId());
+        Assertions.assertEquals(expectedDTO.getFirstName(), actualDTO.getFirstName());
+        Assertions.assertEquals(expectedDTO.getLastName(), actualDTO.getLastName());
+        Assertions.assertEquals(expectedDTO.getProvinceId(), actualDTO.getProvinceId());
+
+        User expected = reflective.toEntity(TestFactory.getUserDTO());
+        User actual = generated.toEntity(TestFactory.getUserDTO());
+        Assertions.assertEquals(expected.getId(), actual.getId());
+        Assertions.assertEquals(expected.getFirstName(), actual.getFirstName());
+        Assertions.assertEquals(expected.getLastName(), actual.getLastName());
+        Assertions.assertEquals(expected.getProvinceId(), actual.getProvinceId());
+        Assertions.assertNull(actual.getProvince());
+    }
+
+    @Test
+    void success_provinceMapper_matchesModelMapper() {
+        DTOMapper<Province, ProvinceDTO> generated = Mappers.getMapper(ProvinceMapper.class);
+        DTOMapper<Province, ProvinceDTO> reflective = new ModelMapperDTOMapper<>(modelMapper, Province.class,
+                ProvinceDTO.class);
+
+        ProvinceDTO expectedDTO = reflective.toDTO(TestFactory.getProvince());
+        ProvinceDTO actualDTO = generated.toDTO(TestFactory.getProvince());
+        Assertions.assertEquals(expectedDTO.getId(), actualDTO.getId());
+        Assertions.assertEquals(expectedDTO.getCode(), actualDTO.getCode());
+        Assertions.assertEquals(expectedDTO.getNameEn(), actualDTO.getNameEn());
+        Assertions.assertEquals(expectedDTO.getNameFr(), actualDTO.getNameFr());
+
+        Province expected = reflective.toEntity(TestFactory.getProvinceDTO());
+        Province actual = generated.toEntity(TestFactory.getProvinceDTO());
+        Assertions.assertEquals(expected.getId(), actual.getId());
+        Assertions.assertEquals(expected.getCode(), actual.getCode());
+        Assertions.assertEquals(expected.getNameEn(), actual.getNameEn());
+        Assertions.assertEquals(expected.getNameFr(), actual.getNameFr());
+    }
+}
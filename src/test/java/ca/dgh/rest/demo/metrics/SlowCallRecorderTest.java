@@ -0,0 +1,45 @@
+package ca.dgh.rest.demo.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tests that {@link SlowCallRecorder} keeps the slowest of the most recent calls.
+ */
+class SlowCallRecorderTest {
+
+    @Test
+    void success_record_ignoresFastCalls() {
+        SlowCallRecorder recorder = new SlowCallRecorder(Duration.ofMillis(100), 10);
+        recorder.record("user.getById", "hit", "success", Duration.ofMillis(1).toNanos());
+
+        Assertions.assertTrue(recorder.getSlowestCalls().isEmpty());
+    }
+
+    @Test
+    void success_getSlowestCalls_sortedSlowestFirst() {
+        SlowCallRecorder recorder = new SlowCallRecorder(Duration.ofMillis(100), 10);
+        recorder.record("user.getById", "miss", "success", Duration.ofMillis(150).toNanos());
+        recorder.record("user.getAll", "miss", "success", Duration.ofMillis(900).toNanos());
+        recorder.record("user.update", "none", "DataNotFoundException", Duration.ofMillis(300).toNanos());
+
+        List<SlowCallRecorder.SlowCall> calls = recorder.getSlowestCalls();
+        Assertions.assertEquals(List.of("user.getAll", "user.update", "user.getById"),
+                calls.stream().map(SlowCallRecorder.SlowCall::operation).toList());
+        Assertions.assertEquals("DataNotFoundException", calls.get(1).outcome());
+    }
+
+    @Test
+    void success_record_dropsOldestCalls() {
+        SlowCallRecorder recorder = new SlowCallRecorder(Duration.ofMillis(100), 2);
+        recorder.record("user.getAll", "miss", "success", Duration.ofSeconds(5).toNanos());
+        recorder.record("user.getById", "miss", "success", Duration.ofMillis(200).toNanos());
+        recorder.record("user.create", "none", "success", Duration.ofMillis(300).toNanos());
+
+        Assertions.assertEquals(List.of("user.create", "user.getById"),
+                recorder.getSlowestCalls().stream().map(SlowCallRecorder.SlowCall::operation).toList());
+    }
+}
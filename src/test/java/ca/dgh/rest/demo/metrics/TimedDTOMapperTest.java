@@ -0,0 +1,33 @@
+package ca.dgh.rest.demo.metrics;
+
+import ca.dgh.rest.demo.TestFactory;
+import ca.dgh.rest.demo.mapper.ProvinceMapper;
+import ca.dgh.rest.demo.model.Province;
+import ca.dgh.rest.demo.model.dto.ProvinceDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Tests that {@link TimedDTOMapper} times the conversions of the mapper it wraps without changing their result.
+ */
+class TimedDTOMapperTest {
+
+    @Test
+    void success_toDTO_timed() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TimedDTOMapper<Province, ProvinceDTO> mapper = new TimedDTOMapper<>(Mappers.getMapper(ProvinceMapper.class),
+                "province", registry);
+
+        ProvinceDTO dto = mapper.toDTO(TestFactory.getProvince());
+        mapper.toEntity(dto);
+        mapper.toEntity(dto);
+
+        Assertions.assertEquals(TestFactory.getProvince().getCode(), dto.getCode());
+        Assertions.assertEquals(1, registry.get(TimedDTOMapper.METRIC_NAME)
+                .tags("entity", "province", "direction", "toDTO").timer().count());
+        Assertions.assertEquals(2, registry.get(TimedDTOMapper.METRIC_NAME)
+                .tags("entity", "province", "direction", "toEntity").timer().count());
+    }
+}
@@ -0,0 +1,47 @@
+package ca.dgh.rest.demo.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+class TimeOrderedUuidGeneratorTest {
+
+    /**
+     * Generated ids should be valid version 7 UUIDs carrying the time they were created at.
+     */
+    @Test
+    void success_generateUuid_isVersion7() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuidGenerator.generateUuid();
+        long after = System.currentTimeMillis();
+
+        Assertions.assertEquals(7, uuid.version());
+        Assertions.assertEquals(2, uuid.variant());
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        Assertions.assertTrue(timestamp >= before && timestamp <= after);
+    }
+
+    /**
+     * Ids generated in different milliseconds should sort in the order they were generated, and no id should repeat.
+     *
+     * @throws InterruptedException when the test is interrupted while waiting for the clock to move.
+     */
+    @Test
+    void success_generateUuid_isTimeOrdered() throws InterruptedException {
+        Set<UUID> uuids = new HashSet<>();
+        UUID previous = TimeOrderedUuidGenerator.generateUuid();
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(2);
+            UUID next = TimeOrderedUuidGenerator.generateUuid();
+            Assertions.assertTrue(Long.compareUnsigned(previous.getMostSignificantBits(),
+                    next.getMostSignificantBits()) < 0);
+            previous = next;
+        }
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertTrue(uuids.add(TimeOrderedUuidGenerator.generateUuid()));
+        }
+    }
+}
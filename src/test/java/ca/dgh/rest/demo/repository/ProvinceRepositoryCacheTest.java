@@ -0,0 +1,56 @@
+package ca.dgh.rest.demo.repository;
+
+import ca.dgh.rest.demo.lookup.SearchKeyNormalizer;
+import ca.dgh.rest.demo.metrics.QueryCounter;
+import ca.dgh.rest.demo.model.Province;
+import ca.dgh.rest.demo.model.dto.ProvinceDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+/**
+ * Checks that provinces are served from the Hibernate second-level and query caches once they have been read, against
+ * the real database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.datasource.url=jdbc:h2:mem:province-cache-test;DB_CLOSE_DELAY=-1")
+class ProvinceRepositoryCacheTest {
+
+    @Autowired
+    private ProvinceRepository provinceRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void success_findByName_queryCache() {
+        ProvinceDTO province = provinceRepository.findAllProjectedBy(ProvinceDTO.class).get(0);
+        String searchKey = SearchKeyNormalizer.normalize(province.getNameEn());
+        provinceRepository.findFirstByNameEnKey(searchKey, ProvinceDTO.class);
+
+        QueryCounter.reset();
+        ProvinceDTO cached = provinceRepository.findFirstByNameEnKey(searchKey, ProvinceDTO.class).orElseThrow();
+
+        Assertions.assertEquals(0, QueryCounter.get());
+        Assertions.assertEquals(province.getId(), cached.getId());
+        Assertions.assertTrue(entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getQueryCacheHitCount() > 0);
+    }
+
+    @Test
+    void success_findById_entityCache() {
+        List<ProvinceDTO> provinces = provinceRepository.findAllProjectedBy(ProvinceDTO.class);
+        provinceRepository.findById(provinces.get(0).getId());
+
+        QueryCounter.reset();
+        Province cached = provinceRepository.findById(provinces.get(0).getId()).orElseThrow();
+
+        Assertions.assertEquals(0, QueryCounter.get());
+        Assertions.assertEquals(provinces.get(0).getNameEn(), cached.getNameEn());
+    }
+}
@@ -1,17 +1,32 @@
 package ca.dgh.rest.demo.service;
 
 import ca.dgh.rest.demo.exception.DataNotFoundException;
+import ca.dgh.rest.demo.exporter.DataExportWriter;
 import ca.dgh.rest.demo.model.AbstractEntity;
 import ca.dgh.rest.demo.model.dto.AbstractDTO;
+import ca.dgh.rest.demo.model.dto.BatchDTO;
+import ca.dgh.rest.demo.model.dto.PageDTO;
+import ca.dgh.rest.demo.repository.DTOAwareRepository;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
@@ -31,7 +46,7 @@ abstract class AbstractDTOAwareServiceTest<S extends AbstractEntity, T extends A
      * The repository class that has been injected into the service. We will use {@link Mockito} to mock responses from
      * this repository.
      */
-    JpaRepository<S, UUID> mockedRepository;
+    DTOAwareRepository<S> mockedRepository;
 
     /**
      * The service to be tested by this class.
@@ -67,7 +82,7 @@ abstract class AbstractDTOAwareServiceTest<S extends AbstractEntity, T extends A
      * @param entityType              The class type of the {@link AbstractEntity} object.
      * @param dtoType                 The class type of the {@link AbstractDTO} object.
      */
-    void setup(AbstractDTOAwareService<S, T> abstractDTOAwareService, JpaRepository<S, UUID> repository,
+    void setup(AbstractDTOAwareService<S, T> abstractDTOAwareService, DTOAwareRepository<S> repository,
                ModelMapper modelMapper, S testEntity, Class<S> entityType, Class<T> dtoType) {
         this.service = abstractDTOAwareService;
         this.mockedRepository = repository;
@@ -82,17 +97,95 @@ abstract class AbstractDTOAwareServiceTest<S extends AbstractEntity, T extends A
      */
     @Test
     void success_getAll() {
-        Mockito.when(mockedRepository.findAll()).thenReturn(List.of(testEntity));
+        Mockito.when(mockedRepository.findAllProjectedBy(dtoType)).thenReturn(List.of(testDTO));
         List<T> dtoList = this.service.getAll();
         Assertions.assertEquals(1, dtoList.size());
     }
 
+    /**
+     * Test that a page fetched by number carries the totals of the table.
+     */
+    @Test
+    void success_getPage() {
+        Mockito.when(mockedRepository.findPageProjectedBy(any(Pageable.class), Mockito.eq(dtoType)))
+                .thenReturn(new PageImpl<>(List.of(testDTO), PageRequest.of(1, 1), 3));
+        PageDTO<T> page = this.service.getPage(1, 1);
+        Assertions.assertEquals(1, page.getContent().size());
+        Assertions.assertEquals(1, page.getPage());
+        Assertions.assertEquals(3, page.getTotalElements());
+        Assertions.assertEquals(3, page.getTotalPages());
+        Assertions.assertNull(page.getNextToken());
+    }
+
+    /**
+     * Test that oversized pages are cut down to the maximum page size.
+     */
+    @Test
+    void success_getPage_capsSize() {
+        this.service.setMaxPageSize(10);
+        Mockito.when(mockedRepository.findPageProjectedBy(any(Pageable.class), Mockito.eq(dtoType)))
+                .thenReturn(new PageImpl<>(List.of()));
+        this.service.getPage(0, 10_000);
+        verify(this.mockedRepository).findPageProjectedBy(Mockito.<Pageable>argThat(p -> p.getPageSize() == 10),
+                Mockito.eq(dtoType));
+    }
+
+    /**
+     * Test that a full page fetched after a continuation token returns the token of the next page, and that the next
+     * page seeks past the last id of the previous one.
+     */
+    @Test
+    void success_getPageAfter() {
+        Mockito.when(mockedRepository.findAllProjectedBy(any(Pageable.class), Mockito.eq(dtoType)))
+                .thenReturn(List.of(testDTO, testDTO));
+        PageDTO<T> firstPage = this.service.getPageAfter(null, 1);
+        Assertions.assertEquals(1, firstPage.getContent().size());
+        Assertions.assertNotNull(firstPage.getNextToken());
+
+        Mockito.when(mockedRepository.findProjectedByIdGreaterThan(Mockito.eq(testEntity.getId()), any(Pageable.class),
+                Mockito.eq(dtoType))).thenReturn(List.of());
+        PageDTO<T> lastPage = this.service.getPageAfter(firstPage.getNextToken(), 1);
+        Assertions.assertTrue(lastPage.getContent().isEmpty());
+        Assertions.assertNull(lastPage.getNextToken());
+    }
+
+    /**
+     * Test that an invalid continuation token is rejected.
+     */
+    @Test
+    void failure_getPageAfter_invalidToken() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> this.service.getPageAfter("not-a-token", 1));
+    }
+
+    /**
+     * Test that exporting streams every object to the writer.
+     *
+     * @throws IOException when the writer fails.
+     */
+    @Test
+    void success_exportAll() throws IOException {
+        Mockito.when(mockedRepository.streamProjectedByOrderByIdAsc(dtoType)).thenReturn(Stream.of(testDTO, testDTO));
+        List<T> written = new ArrayList<>();
+        DataExportWriter<T> writer = new DataExportWriter<>() {
+            @Override
+            public void write(T object) {
+                written.add(object);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Assertions.assertEquals(2, this.service.exportAll(writer));
+        Assertions.assertEquals(2, written.size());
+    }
+
     /**
      * Test that a caller will get a {@link AbstractDTO} when calling the getById method.
      */
     @Test
     void success_getById() {
-        Mockito.when(mockedRepository.findById(testEntity.getId())).thenReturn(Optional.of(testEntity));
+        Mockito.when(mockedRepository.findProjectedById(testEntity.getId(), dtoType)).thenReturn(Optional.of(testDTO));
         Optional<T> result = this.service.getById(testDTO.getId());
         Assertions.assertTrue(result.isPresent());
     }
@@ -103,7 +196,7 @@ abstract class AbstractDTOAwareServiceTest<S extends AbstractEntity, T extends A
     @Test
     void success_getById_noResult() {
         final UUID randomUUID = UUID.randomUUID();
-        Mockito.when(mockedRepository.findById(randomUUID)).thenReturn(Optional.empty());
+        Mockito.when(mockedRepository.findProjectedById(randomUUID, dtoType)).thenReturn(Optional.empty());
         Optional<T> result = this.service.getById(randomUUID);
         Assertions.assertTrue(result.isEmpty());
 
@@ -122,6 +215,34 @@ abstract class AbstractDTOAwareServiceTest<S extends AbstractEntity, T extends A
         Assertions.assertNotNull(newDTO.getId());
     }
 
+    /**
+     * Test that creating several objects saves them all at once and adds them to the cached list.
+     */
+    @Test
+    void success_createAll() {
+        Cache cache = useCache();
+        cache.put(AbstractDTOAwareService.ALL_KEY, List.of());
+        testDTO.setId(null);
+        Mockito.when(mockedRepository.saveAll(Mockito.<Iterable<S>>any())).thenReturn(List.of(testEntity));
+        List<T> newDTOs = this.service.createAll(List.of(testDTO));
+        verify(this.mockedRepository, times(1)).saveAll(Mockito.<Iterable<S>>any());
+        Assertions.assertEquals(1, newDTOs.size());
+        Assertions.assertNotNull(newDTOs.get(0).getId());
+        assertCached(cache, testEntity.getId());
+        Assertions.assertEquals(this.service.isObjectCacheEnabled() ? 1 : 0,
+                cache.get(AbstractDTOAwareService.ALL_KEY, List.class).size());
+    }
+
+    /**
+     * Test that a batch larger than a page is rejected before anything is saved.
+     */
+    @Test
+    void failure_createAll_tooMany() {
+        this.service.maxPageSize = 1;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> this.service.createAll(List.of(testDTO, testDTO)));
+        verify(this.mockedRepository, Mockito.never()).saveAll(Mockito.<Iterable<S>>any());
+    }
+
     /**
      * Test that a caller will receive a {@link AbstractDTO} with an id when attempting to update an entry.
      *
@@ -132,20 +253,130 @@ abstract class AbstractDTOAwareServiceTest<S extends AbstractEntity, T extends A
         Assertions.assertNotNull(testDTO.getId(), "The provided testDTO should have a UUID");
         Assertions.assertEquals(testDTO.getId(), testEntity.getId(),
                 "The testDTO and testEntities should have the same id");
-        Mockito.when(mockedRepository.save(any(entityType))).thenReturn(testEntity);
-        Mockito.when(mockedRepository.findById(testEntity.getId())).thenReturn(Optional.ofNullable(testEntity));
+        Mockito.when(mockedRepository.updateExisting(any(entityType))).thenReturn(testEntity);
 
         T updatedDTO = this.service.update(testDTO);
-        verify(this.mockedRepository, times(1)).save(any(entityType));
+        verify(this.mockedRepository, times(1)).updateExisting(any(entityType));
+        verify(this.mockedRepository, Mockito.never()).findById(any(UUID.class));
         Assertions.assertEquals(testDTO.getId(), updatedDTO.getId());
     }
 
     /**
+     * Test that an update without a version is made against the current version of the object.
      *
+     * @throws DataNotFoundException when no data has been found.
      */
-    //@Test
-    void fail_update() {
+    @Test
+    void success_update_withoutVersion() throws DataNotFoundException {
+        testDTO.setVersion(null);
+        Mockito.when(mockedRepository.findVersionById(testDTO.getId())).thenReturn(Optional.of(3L));
+        Mockito.when(mockedRepository.updateExisting(any(entityType))).thenReturn(testEntity);
 
+        this.service.update(testDTO);
+        verify(this.mockedRepository).updateExisting(Mockito.argThat(e -> Long.valueOf(3L).equals(e.getVersion())));
+    }
+
+    /**
+     * Test that updating an object that doesn't exist throws a {@link DataNotFoundException}.
+     */
+    @Test
+    void fail_update_notFound() {
+        Mockito.when(mockedRepository.updateExisting(any(entityType)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(entityType, testDTO.getId()));
+        Mockito.when(mockedRepository.findVersionById(testDTO.getId())).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(DataNotFoundException.class, () -> this.service.update(testDTO));
+    }
+
+    /**
+     * Test that updating an object that has been changed since it was read is rejected.
+     */
+    @Test
+    void fail_update_conflict() {
+        Mockito.when(mockedRepository.updateExisting(any(entityType)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(entityType, testDTO.getId()));
+        Mockito.when(mockedRepository.findVersionById(testDTO.getId())).thenReturn(Optional.of(4L));
+
+        Assertions.assertThrows(OptimisticLockingFailureException.class, () -> this.service.update(testDTO));
+    }
+
+    /**
+     * Test that a batch of ids is fetched with a single query, that missing ids are reported rather than failing the
+     * batch, and that the objects fetched are then served from the cache.
+     */
+    @Test
+    void success_getByIds() {
+        Cache cache = useCache();
+        UUID missingId = UUID.randomUUID();
+        Mockito.when(mockedRepository.findProjectedByIdIn(Mockito.anyCollection(), Mockito.eq(dtoType)))
+                .thenReturn(List.of(testDTO));
+
+        BatchDTO<T> batch = this.service.getByIds(List.of(testDTO.getId(), missingId, testDTO.getId()));
+        Assertions.assertEquals(1, batch.getContent().size());
+        Assertions.assertEquals(testDTO.getId(), batch.getContent().get(0).getId());
+        Assertions.assertEquals(List.of(missingId), batch.getMissingIds());
+        assertCached(cache, testDTO.getId());
+
+        this.service.getByIds(List.of(testDTO.getId()));
+        verify(this.mockedRepository, times(this.service.isObjectCacheEnabled() ? 1 : 2))
+                .findProjectedByIdIn(Mockito.anyCollection(), Mockito.eq(dtoType));
+    }
+
+    /**
+     * Test that creating an object adds it to the cached list instead of evicting the list.
+     */
+    @Test
+    void success_create_patchesCachedList() {
+        Assumptions.assumeTrue(this.service.isObjectCacheEnabled());
+        Cache cache = useCache();
+        cache.put(AbstractDTOAwareService.ALL_KEY, List.of());
+        Mockito.when(mockedRepository.save(any(entityType))).thenReturn(testEntity);
+        this.service.create(testDTO);
+        List<?> cachedList = cache.get(AbstractDTOAwareService.ALL_KEY, List.class);
+        Assertions.assertNotNull(cachedList);
+        Assertions.assertEquals(1, cachedList.size());
+    }
+
+    /**
+     * Test that deleting an object removes only that object from the cached list.
+     *
+     * @throws DataNotFoundException when no data has been found.
+     */
+    @Test
+    void success_delete_patchesCachedList() throws DataNotFoundException {
+        Assumptions.assumeTrue(this.service.isObjectCacheEnabled());
+        Cache cache = useCache();
+        cache.put(AbstractDTOAwareService.ALL_KEY, List.of(testDTO));
+        Mockito.when(mockedRepository.removeById(testEntity.getId())).thenReturn(1);
+        this.service.delete(testDTO.getId());
+        List<?> cachedList = cache.get(AbstractDTOAwareService.ALL_KEY, List.class);
+        Assertions.assertNotNull(cachedList);
+        Assertions.assertTrue(cachedList.isEmpty());
+    }
+
+    /**
+     * Give the service under test a cache manager and return the cache it will use.
+     *
+     * @return the cache used by the service under test.
+     */
+    private Cache useCache() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        this.service.setCacheManager(cacheManager);
+        return cacheManager.getCache(this.service.getCacheName());
+    }
+
+    /**
+     * Check that the object with the given id is in the cache, or that it isn't if the service doesn't cache objects.
+     *
+     * @param cache the cache used by the service under test.
+     * @param id    the id of the object.
+     */
+    private void assertCached(Cache cache, UUID id) {
+        if (this.service.isObjectCacheEnabled()) {
+            Assertions.assertNotNull(cache.get(id));
+        } else {
+            Assertions.assertNull(cache.get(id));
+        }
     }
 
     /**
@@ -156,8 +387,18 @@ abstract class AbstractDTOAwareServiceTest<S extends AbstractEntity, T extends A
     @Test
     void success_delete() throws DataNotFoundException {
         Assertions.assertNotNull(testDTO.getId(), "The provided testDTO should have a UUID");
-        Mockito.when(mockedRepository.findById(testEntity.getId())).thenReturn(Optional.of(testEntity));
+        Mockito.when(mockedRepository.removeById(testEntity.getId())).thenReturn(1);
         this.service.delete(testDTO.getId());
-        verify(this.mockedRepository, times(1)).deleteById(any(UUID.class));
+        verify(this.mockedRepository, times(1)).removeById(any(UUID.class));
+        verify(this.mockedRepository, Mockito.never()).findById(any(UUID.class));
+    }
+
+    /**
+     * Test that deleting an object that doesn't exist throws a {@link DataNotFoundException}.
+     */
+    @Test
+    void fail_delete_notFound() {
+        Mockito.when(mockedRepository.removeById(testEntity.getId())).thenReturn(0);
+        Assertions.assertThrows(DataNotFoundException.class, () -> this.service.delete(testDTO.getId()));
     }
 }
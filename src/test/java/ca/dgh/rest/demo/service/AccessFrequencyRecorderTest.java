@@ -0,0 +1,77 @@
+package ca.dgh.rest.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tests that {@link AccessFrequencyRecorder} ranks objects by how often they are read and keeps its counts across a
+ * save and load.
+ */
+class AccessFrequencyRecorderTest {
+
+    @Test
+    void success_getHottest_mostReadFirst() {
+        AccessFrequencyRecorder recorder = new AccessFrequencyRecorder(10, new ObjectMapper());
+        UUID once = UUID.randomUUID();
+        UUID twice = UUID.randomUUID();
+        UUID thrice = UUID.randomUUID();
+        read(recorder, "user", once, 1);
+        read(recorder, "user", twice, 2);
+        read(recorder, "user", thrice, 3);
+        read(recorder, "province", once, 5);
+
+        Assertions.assertEquals(List.of(thrice, twice), recorder.getHottest("user", 2));
+        Assertions.assertEquals(List.of(once), recorder.getHottest("province", 2));
+    }
+
+    @Test
+    void success_record_forgetsRareObjectsWhenFull() {
+        AccessFrequencyRecorder recorder = new AccessFrequencyRecorder(2, new ObjectMapper());
+        UUID popular = UUID.randomUUID();
+        UUID rare = UUID.randomUUID();
+        UUID recent = UUID.randomUUID();
+        read(recorder, "user", popular, 4);
+        read(recorder, "user", rare, 1);
+        read(recorder, "user", recent, 1);
+
+        Assertions.assertEquals(List.of(popular, recent), recorder.getHottest("user", 10));
+    }
+
+    @Test
+    void success_withoutRecording_notCounted() {
+        AccessFrequencyRecorder recorder = new AccessFrequencyRecorder(10, new ObjectMapper());
+        recorder.withoutRecording(() -> recorder.record("user", UUID.randomUUID()));
+
+        Assertions.assertTrue(recorder.getHottest("user", 10).isEmpty());
+    }
+
+    @Test
+    void success_saveAndLoad(@TempDir Path directory) throws IOException {
+        AccessFrequencyRecorder recorder = new AccessFrequencyRecorder(10, new ObjectMapper());
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        read(recorder, "user", first, 3);
+        read(recorder, "user", second, 1);
+        Path file = directory.resolve("snapshot/access-frequency.json");
+        recorder.save(file);
+
+        AccessFrequencyRecorder restarted = new AccessFrequencyRecorder(10, new ObjectMapper());
+        read(restarted, "user", second, 3);
+        restarted.load(file);
+
+        Assertions.assertEquals(List.of(second, first), restarted.getHottest("user", 10));
+    }
+
+    private static void read(AccessFrequencyRecorder recorder, String cacheName, UUID id, int times) {
+        for (int i = 0; i < times; i++) {
+            recorder.record(cacheName, id);
+        }
+    }
+}
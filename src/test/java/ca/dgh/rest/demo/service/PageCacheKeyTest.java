@@ -0,0 +1,54 @@
+package ca.dgh.rest.demo.service;
+
+import ca.dgh.rest.demo.metrics.QueryCounter;
+import ca.dgh.rest.demo.model.dto.UserSearchDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Checks that pages are cached under the page size they are read with, against the real caches and database. A size
+ * above the maximum reads the same page as the maximum, so it must not cause another query.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"spring.datasource.url=jdbc:h2:mem:page-cache-key-test;DB_CLOSE_DELAY=-1",
+                "demo.paging.max-size=10"})
+class PageCacheKeyTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void success_getPage_clampedSizeSharesEntry() {
+        userService.getPage(0, 10);
+
+        QueryCounter.reset();
+        userService.getPage(0, 500);
+        userService.getPage(-1, 10);
+
+        Assertions.assertEquals(0, QueryCounter.get());
+    }
+
+    @Test
+    void success_getPageAfter_clampedSizeSharesEntry() {
+        userService.getPageAfter(null, 10);
+
+        QueryCounter.reset();
+        userService.getPageAfter(null, 500);
+
+        Assertions.assertEquals(0, QueryCounter.get());
+    }
+
+    @Test
+    void success_search_clampedSizeSharesEntry() {
+        UserSearchDTO criteria = new UserSearchDTO();
+        criteria.setLastName("Doe");
+        userService.search(criteria, 0, 10);
+
+        QueryCounter.reset();
+        userService.search(criteria, 0, 500);
+
+        Assertions.assertEquals(0, QueryCounter.get());
+    }
+}
@@ -0,0 +1,72 @@
+package ca.dgh.rest.demo.service;
+
+import ca.dgh.rest.demo.model.Province;
+import ca.dgh.rest.demo.model.dto.ProvinceDTO;
+import ca.dgh.rest.demo.repository.ProvinceRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+/**
+ * Checks that provinces written behind the back of the {@link ProvinceService}, as another instance would, are served
+ * by the service once its lookup table has been reloaded, and that their version changes with them, against the real
+ * database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.datasource.url=jdbc:h2:mem:province-reload-test;DB_CLOSE_DELAY=-1")
+class ProvinceLookupTableReloadTest {
+
+    @Autowired
+    private ProvinceService provinceService;
+
+    @Autowired
+    private ProvinceRepository provinceRepository;
+
+    @Test
+    void success_getAll_afterReload() {
+        int count = provinceService.getAll().size();
+        Province province = new Province();
+        province.setCode("ZZ");
+        province.setNameEn("Reloaded");
+        province.setNameFr("Rechargée");
+        UUID id = provinceRepository.save(province).getId();
+
+        provinceService.reloadLookupTable();
+
+        Assertions.assertEquals(count + 1, provinceService.getAll().size());
+        Assertions.assertTrue(provinceService.getAll().stream().anyMatch(p -> p.getId().equals(id)));
+    }
+
+    @Test
+    void success_getById_afterReload() {
+        ProvinceDTO province = provinceService.getAll().get(0);
+        Assertions.assertEquals(province.getNameEn(), provinceService.getById(province.getId()).orElseThrow().getNameEn());
+        Province entity = provinceRepository.findById(province.getId()).orElseThrow();
+        entity.setNameEn(province.getNameEn() + " renamed");
+        provinceRepository.save(entity);
+
+        provinceService.reloadLookupTable();
+
+        Assertions.assertEquals(province.getNameEn() + " renamed",
+                provinceService.getById(province.getId()).orElseThrow().getNameEn());
+    }
+
+    @Test
+    void success_getPage_afterReload() {
+        String version = provinceService.getContentVersion();
+        long count = provinceService.getPage(0, 100).getTotalElements();
+        Province province = new Province();
+        province.setCode("ZY");
+        province.setNameEn("Paged");
+        province.setNameFr("Paginée");
+        provinceRepository.save(province);
+
+        provinceService.reloadLookupTable();
+
+        Assertions.assertNotEquals(version, provinceService.getContentVersion());
+        Assertions.assertEquals(count + 1, provinceService.getPage(0, 100).getTotalElements());
+    }
+}
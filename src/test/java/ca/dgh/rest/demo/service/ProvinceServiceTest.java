@@ -5,11 +5,18 @@ import ca.dgh.rest.demo.mapper.ModelMapperConfiguration;
 import ca.dgh.rest.demo.model.Province;
 import ca.dgh.rest.demo.model.dto.ProvinceDTO;
 import ca.dgh.rest.demo.repository.ProvinceRepository;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.modelmapper.ModelMapper;
 
+import java.util.List;
+import java.util.Optional;
+
 public class ProvinceServiceTest extends AbstractDTOAwareServiceTest<Province, ProvinceDTO> {
 
     @Mock
@@ -25,4 +32,73 @@ public class ProvinceServiceTest extends AbstractDTOAwareServiceTest<Province, P
                 TestFactory.getProvince(),
                 Province.class, ProvinceDTO.class);
     }
+
+    /**
+     * Provinces should be found by English or French name regardless of case, without another trip to the repository.
+     */
+    @Test
+    void success_getProvinceByName() {
+        Mockito.when(productRepository.findAllProjectedBy(ProvinceDTO.class)).thenReturn(List.of(testDTO));
+        ProvinceService provinceService = (ProvinceService) service;
+
+        Assertions.assertTrue(provinceService.getProvinceByName("nova scotia").isPresent());
+        Assertions.assertTrue(provinceService.getProvinceByName("NOUVELLE-ÉCOSSE").isPresent());
+        Assertions.assertTrue(provinceService.getProvinceByName(" nouvelle-ecosse").isPresent());
+        Mockito.verify(productRepository, Mockito.times(1)).findAllProjectedBy(ProvinceDTO.class);
+        Mockito.verifyNoMoreInteractions(productRepository);
+    }
+
+    /**
+     * Names missing from the lookup table should be looked up through the search key columns.
+     */
+    @Test
+    void success_getProvinceByName_fallsBackToSearchKey() {
+        Mockito.when(productRepository.findAllProjectedBy(ProvinceDTO.class)).thenReturn(List.of());
+        Mockito.when(productRepository.findFirstByNameEnKey("nova scotia", ProvinceDTO.class))
+                .thenReturn(Optional.of(testDTO));
+        ProvinceService provinceService = (ProvinceService) service;
+
+        Assertions.assertTrue(provinceService.getProvinceByName("Nova Scotia").isPresent());
+        Assertions.assertTrue(provinceService.getProvinceByName("Ontario").isEmpty());
+    }
+
+    /**
+     * Typeahead searches should match the start of either name, regardless of accents.
+     */
+    @Test
+    void success_getProvincesByNamePrefix() {
+        Mockito.when(productRepository.findAllProjectedBy(ProvinceDTO.class)).thenReturn(List.of(testDTO));
+        ProvinceService provinceService = (ProvinceService) service;
+
+        Assertions.assertEquals(1, provinceService.getProvincesByNamePrefix("nov", 10).size());
+        Assertions.assertEquals(1, provinceService.getProvincesByNamePrefix("Nouvelle-Eco", 10).size());
+        Assertions.assertTrue(provinceService.getProvincesByNamePrefix("ont", 10).isEmpty());
+    }
+
+    /**
+     * Provinces should be found by code regardless of case.
+     */
+    @Test
+    void success_getProvinceByCode() {
+        Mockito.when(productRepository.findAllProjectedBy(ProvinceDTO.class)).thenReturn(List.of(testDTO));
+        ProvinceService provinceService = (ProvinceService) service;
+
+        Assertions.assertTrue(provinceService.getProvinceByCode("ns").isPresent());
+        Assertions.assertTrue(provinceService.getProvinceByCode("ON").isEmpty());
+    }
+
+    /**
+     * A write should be visible in the lookup table straight away.
+     */
+    @Test
+    void success_create_reloadsLookupTable() {
+        Mockito.when(productRepository.findAllProjectedBy(ProvinceDTO.class)).thenReturn(List.of());
+        Assertions.assertTrue(service.getAll().isEmpty());
+
+        Mockito.when(productRepository.save(ArgumentMatchers.any(Province.class))).thenReturn(testEntity);
+        Mockito.when(productRepository.findAllProjectedBy(ProvinceDTO.class)).thenReturn(List.of(testDTO));
+        service.create(testDTO);
+
+        Assertions.assertEquals(1, service.getAll().size());
+    }
 }
@@ -0,0 +1,68 @@
+package ca.dgh.rest.demo.service;
+
+import ca.dgh.rest.demo.model.User;
+import ca.dgh.rest.demo.model.dto.ProvinceDTO;
+import ca.dgh.rest.demo.model.dto.UserDTO;
+import ca.dgh.rest.demo.repository.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Checks that the version of the users changes when users are written behind the back of the {@link UserService}, as
+ * another instance would, and that the cached collections are not served under the new version, against the real
+ * database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.datasource.url=jdbc:h2:mem:user-content-version-test;DB_CLOSE_DELAY=-1")
+class UserContentVersionTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProvinceService provinceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void success_getContentVersion_insertedBehindService() {
+        String version = userService.getContentVersion();
+        long count = userService.getPage(0, 100).getTotalElements();
+        userRepository.save(user("Behind"));
+
+        Assertions.assertNotEquals(version, userService.getContentVersion());
+        Assertions.assertEquals(count + 1, userService.getPage(0, 100).getTotalElements());
+    }
+
+    @Test
+    void success_getContentVersion_updatedBehindService() {
+        User user = userRepository.save(user("Before"));
+        String version = userService.getContentVersion();
+        userService.getAll();
+
+        user.setLastName("After");
+        userRepository.save(user);
+
+        Assertions.assertNotEquals(version, userService.getContentVersion());
+        Assertions.assertTrue(userService.getAll().stream().map(UserDTO::getLastName).anyMatch("After"::equals));
+    }
+
+    @Test
+    void success_getContentVersion_unchanged() {
+        String version = userService.getContentVersion();
+
+        Assertions.assertEquals(version, userService.getContentVersion());
+    }
+
+    private User user(String lastName) {
+        ProvinceDTO quebec = provinceService.getProvinceByCode("QC").orElseThrow();
+        User user = new User();
+        user.setFirstName("Version");
+        user.setLastName(lastName);
+        user.setProvinceId(quebec.getId());
+        return user;
+    }
+}
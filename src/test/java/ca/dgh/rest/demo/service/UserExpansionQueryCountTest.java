@@ -0,0 +1,49 @@
+package ca.dgh.rest.demo.service;
+
+import ca.dgh.rest.demo.metrics.QueryCounter;
+import ca.dgh.rest.demo.model.dto.ExpandedUserDTO;
+import ca.dgh.rest.demo.model.dto.PageDTO;
+import ca.dgh.rest.demo.model.dto.ProvinceDTO;
+import ca.dgh.rest.demo.model.dto.UserDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Counts the SQL statements run to read a page of users expanded with their province, against the real database. The
+ * page is a single statement and the provinces come from the lookup table, however many users the page holds.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.datasource.url=jdbc:h2:mem:user-expansion-test;DB_CLOSE_DELAY=-1")
+class UserExpansionQueryCountTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProvinceService provinceService;
+
+    @Test
+    void success_expandedPage_singleStatement() {
+        List<ProvinceDTO> provinces = provinceService.getAll();
+        userService.createAll(IntStream.range(0, 50).mapToObj(i -> {
+            UserDTO user = new UserDTO();
+            user.setFirstName("First " + i);
+            user.setLastName("Last " + i);
+            user.setProvinceId(provinces.get(i % provinces.size()).getId());
+            return user;
+        }).toList());
+
+        QueryCounter.reset();
+        PageDTO<UserDTO> page = userService.getPageAfter(null, 50);
+        List<UserDTO> users = userService.withProvinces(page.getContent());
+
+        Assertions.assertEquals(1, QueryCounter.get());
+        Assertions.assertEquals(50, users.size());
+        Assertions.assertTrue(users.stream().allMatch(user -> ((ExpandedUserDTO) user).getProvince() != null));
+    }
+}
@@ -0,0 +1,142 @@
+package ca.dgh.rest.demo.service;
+
+import ca.dgh.rest.demo.importer.DataFileFormat;
+import ca.dgh.rest.demo.model.dto.ImportJobDTO;
+import ca.dgh.rest.demo.model.dto.ImportResultDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class UserImportJobServiceTest {
+
+    @Mock
+    private UserImportService userImportService;
+
+    private UserImportJobService userImportJobService;
+
+    private final ByteArrayResource file = new ByteArrayResource("firstName,lastName,province\n"
+            .getBytes(StandardCharsets.UTF_8));
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        userImportJobService = new UserImportJobService(userImportService, 1, 1, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userImportJobService.shutdown();
+    }
+
+    /**
+     * An import should be queued straight away and its progress and result recorded as it runs.
+     *
+     * @throws Exception when the import can't be submitted or the test is interrupted.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void success_submit() throws Exception {
+        Mockito.when(userImportService.importUsers(Mockito.any(), Mockito.eq(DataFileFormat.CSV), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    ImportResultDTO result = new ImportResultDTO();
+                    result.setRowsRead(10);
+                    result.setRowsImported(10);
+                    ((Consumer<ImportResultDTO>) invocation.getArgument(2)).accept(result);
+                    return result;
+                });
+
+        ImportJobDTO job = userImportJobService.submit(file, "users.csv", DataFileFormat.CSV);
+        Assertions.assertEquals(ImportJobDTO.Status.QUEUED, job.getStatus());
+
+        ImportJobDTO finished = awaitFinished(job.getId());
+        Assertions.assertEquals(ImportJobDTO.Status.COMPLETED, finished.getStatus());
+        Assertions.assertEquals(10, finished.getResult().getRowsImported());
+        Assertions.assertNotNull(finished.getStartedAt());
+        Assertions.assertEquals(ImportJobDTO.Status.QUEUED, job.getStatus());
+    }
+
+    /**
+     * Once the worker is busy and the queue is full, further imports should be refused.
+     *
+     * @throws Exception when the import can't be submitted or the test is interrupted.
+     */
+    @Test
+    void fail_submit_queueFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(userImportService.importUsers(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    running.countDown();
+                    release.await();
+                    throw new IOException("malformed");
+                });
+
+        ImportJobDTO first = userImportJobService.submit(file, "users.csv", DataFileFormat.CSV);
+        Assertions.assertTrue(running.await(5, TimeUnit.SECONDS));
+        userImportJobService.submit(file, "users.csv", DataFileFormat.CSV);
+        Assertions.assertThrows(RejectedExecutionException.class,
+                () -> userImportJobService.submit(file, "users.csv", DataFileFormat.CSV));
+
+        release.countDown();
+        ImportJobDTO failed = awaitFinished(first.getId());
+        Assertions.assertEquals(ImportJobDTO.Status.FAILED, failed.getStatus());
+        Assertions.assertEquals("malformed", failed.getFailure());
+    }
+
+    /**
+     * Imports still waiting for a worker at shutdown should be cancelled rather than silently dropped.
+     *
+     * @throws Exception when the import can't be submitted or the test is interrupted.
+     */
+    @Test
+    void success_shutdown_cancelsQueued() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        Mockito.when(userImportService.importUsers(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    running.countDown();
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        throw new IOException("interrupted", e);
+                    }
+                    return new ImportResultDTO();
+                });
+
+        ImportJobDTO first = userImportJobService.submit(file, "users.csv", DataFileFormat.CSV);
+        Assertions.assertTrue(running.await(5, TimeUnit.SECONDS));
+        ImportJobDTO queued = userImportJobService.submit(file, "users.csv", DataFileFormat.CSV);
+        userImportJobService.shutdown();
+
+        ImportJobDTO cancelled = userImportJobService.getJob(queued.getId()).orElseThrow();
+        Assertions.assertEquals(ImportJobDTO.Status.CANCELLED, cancelled.getStatus());
+        Assertions.assertNotNull(cancelled.getFinishedAt());
+        Assertions.assertEquals(ImportJobDTO.Status.FAILED, awaitFinished(first.getId()).getStatus());
+        Mockito.verify(userImportService, Mockito.times(1)).importUsers(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    private ImportJobDTO awaitFinished(UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            ImportJobDTO job = userImportJobService.getJob(id).orElseThrow();
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("The import did not finish in time");
+    }
+}
@@ -0,0 +1,132 @@
+package ca.dgh.rest.demo.service;
+
+import ca.dgh.rest.demo.TestFactory;
+import ca.dgh.rest.demo.importer.DataFileFormat;
+import ca.dgh.rest.demo.model.dto.ImportResultDTO;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class UserImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ProvinceService provinceService;
+
+    @Mock
+    private UserService userService;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        Mockito.when(provinceService.getAll()).thenReturn(List.of(TestFactory.getProvinceDTO()));
+        userImportService = new UserImportService(jdbcTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(), provinceService, userService,
+                TransactionOperations.withoutTransaction(), 2, 10);
+    }
+
+    /**
+     * Valid rows should be inserted in batches and invalid rows reported with their row number.
+     *
+     * @throws IOException when the file can't be read.
+     */
+    @Test
+    void success_importUsers() throws IOException {
+        String csv = "firstName,lastName,province\n"
+                + "John,Doe,NS\n"
+                + "Jane,Doe,nouvelle-ecosse\n"
+                + "Jim,Doe,Nova Scotia\n"
+                + ",Doe,NS\n"
+                + "Joe,Doe,Atlantis\n";
+
+        ImportResultDTO result = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), DataFileFormat.CSV);
+
+        Assertions.assertEquals(5, result.getRowsRead());
+        Assertions.assertEquals(3, result.getRowsImported());
+        Assertions.assertEquals(2, result.getRowsRejected());
+        Assertions.assertEquals(2, result.getErrors().getExceptions().size());
+        Assertions.assertEquals(4L, result.getErrors().getExceptions().get(0).getValue().orElseThrow());
+        Mockito.verify(jdbcTemplate, Mockito.times(2)).batchUpdate(eq(UserImportService.INSERT_USER), anyList());
+        Mockito.verify(userService).evictCollections();
+        Mockito.verify(userService, Mockito.never()).clearCache();
+    }
+
+    /**
+     * A batch rejected by the database should be reported on the row the database rejected, without stopping the import
+     * or undoing the other batches, and progress should be reported after every batch.
+     *
+     * @throws IOException when the file can't be read.
+     */
+    @Test
+    void success_importUsers_failedBatch() throws IOException {
+        String csv = "firstName,lastName,province\n"
+                + "John,Doe,NS\n"
+                + "Jane,Doe,NS\n"
+                + "Jim,Doe,NS\n";
+        Mockito.when(jdbcTemplate.batchUpdate(eq(UserImportService.INSERT_USER), anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate",
+                        new BatchUpdateException(new int[]{Statement.EXECUTE_FAILED, 1})))
+                .thenReturn(new int[]{1});
+        List<Long> progress = new ArrayList<>();
+
+        ImportResultDTO result = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), DataFileFormat.CSV,
+                current -> progress.add(current.getRowsImported() + current.getRowsRejected()));
+
+        Assertions.assertEquals(1, result.getRowsImported());
+        Assertions.assertEquals(2, result.getRowsRejected());
+        Assertions.assertEquals(1, result.getErrors().getExceptions().size());
+        Assertions.assertEquals(1L, result.getErrors().getExceptions().get(0).getValue().orElseThrow());
+        Assertions.assertEquals(List.of(2L, 3L), progress);
+        Mockito.verify(userService).evictCollections();
+        Mockito.verify(userService, Mockito.never()).clearCache();
+    }
+
+    /**
+     * A rejected last batch should be reported on one of its own rows, even when invalid rows were read after it.
+     *
+     * @throws IOException when the file can't be read.
+     */
+    @Test
+    void success_importUsers_failedLastBatch() throws IOException {
+        String csv = "firstName,lastName,province\n"
+                + "John,Doe,NS\n"
+                + "Jane,Doe,NS\n"
+                + "Jim,Doe,NS\n"
+                + ",Doe,NS\n";
+        Mockito.when(jdbcTemplate.batchUpdate(eq(UserImportService.INSERT_USER), anyList()))
+                .thenReturn(new int[]{1, 1})
+                .thenThrow(new DataIntegrityViolationException("duplicate", new BatchUpdateException(new int[0])));
+
+        ImportResultDTO result = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), DataFileFormat.CSV);
+
+        Assertions.assertEquals(2, result.getRowsImported());
+        Assertions.assertEquals(2, result.getRowsRejected());
+        Assertions.assertEquals(List.of(4L, 3L), result.getErrors().getExceptions().stream()
+                .map(error -> error.getValue().orElseThrow()).toList());
+    }
+}
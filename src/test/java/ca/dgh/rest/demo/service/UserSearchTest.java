@@ -0,0 +1,91 @@
+package ca.dgh.rest.demo.service;
+
+import ca.dgh.rest.demo.model.dto.PageDTO;
+import ca.dgh.rest.demo.model.dto.ProvinceDTO;
+import ca.dgh.rest.demo.model.dto.UserDTO;
+import ca.dgh.rest.demo.model.dto.UserSearchDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * Runs user searches against the real database, through the search key columns and indexes added by the migrations.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.datasource.url=jdbc:h2:mem:user-search-test;DB_CLOSE_DELAY=-1")
+class UserSearchTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProvinceService provinceService;
+
+    @Test
+    void success_search() {
+        ProvinceDTO quebec = provinceService.getProvinceByCode("QC").orElseThrow();
+        ProvinceDTO ontario = provinceService.getProvinceByCode("ON").orElseThrow();
+        userService.createAll(List.of(user("Émile", "Tremblay", quebec), user("Anne", "Tremblay", quebec),
+                user("Émile", "Tremblay", ontario), user("Émile", "Gagnon", quebec), user("Zoé", "Trem_blay", quebec)));
+
+        UserSearchDTO criteria = new UserSearchDTO();
+        criteria.setLastName("TREMB");
+        criteria.setProvinceId(quebec.getId());
+        criteria.setSort(UserSearchDTO.SortField.FIRST_NAME);
+        criteria.setDirection(Sort.Direction.DESC);
+        PageDTO<UserDTO> page = userService.search(criteria, 0, 50);
+        Assertions.assertEquals(2, page.getTotalElements());
+        Assertions.assertEquals(List.of("Émile", "Anne"), page.getContent().stream().map(UserDTO::getFirstName).toList());
+
+        criteria = new UserSearchDTO();
+        criteria.setFirstName("emile");
+        page = userService.search(criteria, 0, 1);
+        Assertions.assertEquals(3, page.getTotalElements());
+        Assertions.assertEquals(3, page.getTotalPages());
+        Assertions.assertEquals("Gagnon", page.getContent().get(0).getLastName());
+
+        criteria = new UserSearchDTO();
+        criteria.setLastName("trem_");
+        page = userService.search(criteria, 0, 50);
+        Assertions.assertEquals(List.of("Zoé"), page.getContent().stream().map(UserDTO::getFirstName).toList());
+    }
+
+    @Test
+    void success_search_sortById() {
+        ProvinceDTO quebec = provinceService.getProvinceByCode("QC").orElseThrow();
+        userService.createAll(List.of(user("Id", "Sorted", quebec), user("Id", "Sorted", quebec)));
+
+        UserSearchDTO criteria = new UserSearchDTO();
+        criteria.setLastName("Sorted");
+        criteria.setSort(UserSearchDTO.SortField.ID);
+        criteria.setDirection(Sort.Direction.DESC);
+        List<UserDTO> users = userService.search(criteria, 0, 50).getContent();
+        Assertions.assertEquals(2, users.size());
+        Assertions.assertTrue(users.get(0).getId().toString().compareTo(users.get(1).getId().toString()) > 0);
+    }
+
+    @Test
+    void success_search_noSortNorDirection() {
+        ProvinceDTO quebec = provinceService.getProvinceByCode("QC").orElseThrow();
+        userService.createAll(List.of(user("Zed", "Unsorted", quebec), user("Abe", "Unsorted", quebec)));
+
+        UserSearchDTO criteria = new UserSearchDTO();
+        criteria.setLastName("Unsorted");
+        criteria.setSort(null);
+        criteria.setDirection(null);
+        PageDTO<UserDTO> page = userService.search(criteria, 0, 50);
+        Assertions.assertEquals(List.of("Abe", "Zed"), page.getContent().stream().map(UserDTO::getFirstName).toList());
+    }
+
+    private static UserDTO user(String firstName, String lastName, ProvinceDTO province) {
+        UserDTO user = new UserDTO();
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setProvinceId(province.getId());
+        return user;
+    }
+}
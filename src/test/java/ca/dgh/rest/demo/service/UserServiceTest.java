@@ -3,27 +3,60 @@ package ca.dgh.rest.demo.service;
 import ca.dgh.rest.demo.TestFactory;
 import ca.dgh.rest.demo.mapper.ModelMapperConfiguration;
 import ca.dgh.rest.demo.model.User;
+import ca.dgh.rest.demo.model.dto.BatchDTO;
+import ca.dgh.rest.demo.model.dto.ExpandedUserDTO;
+import ca.dgh.rest.demo.model.dto.ProvinceDTO;
 import ca.dgh.rest.demo.model.dto.UserDTO;
 import ca.dgh.rest.demo.repository.UserRepository;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.modelmapper.ModelMapper;
 
+import java.util.List;
+import java.util.Set;
+
 public class UserServiceTest extends AbstractDTOAwareServiceTest<User, UserDTO> {
 
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ProvinceService provinceService;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
         ModelMapperConfiguration modelMapperConfiguration = new ModelMapperConfiguration();
         ModelMapper modelMapper = modelMapperConfiguration.createModelMapper();
-        super.setup(new UserService(userRepository, modelMapper),
+        super.setup(new UserService(userRepository, provinceService, modelMapper),
                 userRepository,
                 modelMapper,
                 TestFactory.getUser(),
                 User.class, UserDTO.class);
     }
+
+    /**
+     * Users should be expanded with their province in a single call to the province service, without changing the
+     * users given, which may be cached.
+     */
+    @Test
+    void success_withProvinces() {
+        ProvinceDTO province = new ModelMapperConfiguration().createModelMapper()
+                .map(TestFactory.getProvince(), ProvinceDTO.class);
+        BatchDTO<ProvinceDTO> provinces = new BatchDTO<>();
+        provinces.setContent(List.of(province));
+        provinces.setMissingIds(List.of());
+        Mockito.when(provinceService.getByIds(Set.of(province.getId()))).thenReturn(provinces);
+
+        List<UserDTO> expanded = ((UserService) service).withProvinces(List.of(testDTO, testDTO));
+        Assertions.assertEquals(2, expanded.size());
+        Assertions.assertEquals(testDTO.getId(), expanded.get(0).getId());
+        Assertions.assertEquals("NS", ((ExpandedUserDTO) expanded.get(1)).getProvince().getCode());
+        Assertions.assertFalse(testDTO instanceof ExpandedUserDTO);
+        Mockito.verify(provinceService, Mockito.times(1)).getByIds(Mockito.anyCollection());
+    }
 }